@@ -0,0 +1,55 @@
+package academy.devdojo.springboot2essentials.domain;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DevDojoUserBenchmark {
+    @Param({"ROLE_USER", "ROLE_ADMIN,ROLE_USER"})
+    private String authorities;
+
+    private DevDojoUser devDojoUser;
+
+    @Setup
+    public void setUp() {
+        devDojoUser = DevDojoUser.builder()
+                .name("DevDojo Academy")
+                .username("devdojo")
+                .authorities(authorities)
+                .build();
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return devDojoUser.getAuthorities();
+    }
+
+    // the previous getAuthorities, which split the column and built new authorities on every call
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthoritiesSplitPerCall() {
+        return Arrays.stream(authorities.split(","))
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+    }
+}
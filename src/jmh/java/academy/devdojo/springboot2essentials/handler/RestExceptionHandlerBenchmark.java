@@ -0,0 +1,62 @@
+package academy.devdojo.springboot2essentials.handler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindException;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+
+import academy.devdojo.springboot2essentials.exception.BadRequestException;
+import academy.devdojo.springboot2essentials.exception.BadRequestExceptionDetails;
+import academy.devdojo.springboot2essentials.exception.PreconditionFailedException;
+import academy.devdojo.springboot2essentials.exception.PreconditionFailedExceptionDetails;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestExceptionHandlerBenchmark {
+    private final RestExceptionHandler restExceptionHandler = new RestExceptionHandler();
+    private final BadRequestException badRequestException = new BadRequestException("Anime not found");
+    private final PreconditionFailedException preconditionFailedException = new PreconditionFailedException(
+            "The anime was changed by another request");
+    private BindException bindException;
+
+    @Setup
+    public void setUp() {
+        AnimePostRequestBody animePostRequestBody = AnimePostRequestBody.builder().build();
+        BindingResult bindingResult = new BeanPropertyBindingResult(animePostRequestBody, "animePostRequestBody");
+        bindingResult.addError(new FieldError("animePostRequestBody", "name", "The anime name cannot be empty"));
+        bindException = new BindException(bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<BadRequestExceptionDetails> badRequest() {
+        return restExceptionHandler.handleBadRequestException(badRequestException);
+    }
+
+    @Benchmark
+    public ResponseEntity<PreconditionFailedExceptionDetails> preconditionFailed() {
+        return restExceptionHandler.handlePreconditionFailedException(preconditionFailedException);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> invalidFields() {
+        return RestExceptionHandler.invalidFields(bindException, bindException.getBindingResult());
+    }
+}
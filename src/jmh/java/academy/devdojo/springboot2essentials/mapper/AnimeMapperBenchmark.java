@@ -0,0 +1,45 @@
+package academy.devdojo.springboot2essentials.mapper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimeMapperBenchmark {
+    private final AnimeMapper animeMapper = AnimeMapper.INSTANCE;
+    private final AnimePostRequestBody animePostRequestBody = AnimePostRequestBody.builder()
+            .name("Hajime no Ippo")
+            .build();
+    private final AnimePutRequestBody animePutRequestBody = AnimePutRequestBody.builder()
+            .id(1L)
+            .name("Hajime no Ippo 2")
+            .version(0)
+            .build();
+
+    @Benchmark
+    public Anime toAnimeFromPostRequestBody() {
+        return animeMapper.toAnime(animePostRequestBody);
+    }
+
+    @Benchmark
+    public Anime toAnimeFromPutRequestBody() {
+        return animeMapper.toAnime(animePutRequestBody);
+    }
+}
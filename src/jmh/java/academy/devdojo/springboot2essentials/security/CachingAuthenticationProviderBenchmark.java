@@ -0,0 +1,63 @@
+package academy.devdojo.springboot2essentials.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import academy.devdojo.springboot2essentials.cache.AuthenticationCache;
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+
+// the same delegating bcrypt encoder SecurityConfig uses, with an in-memory user so the numbers are the password
+// check alone, a database-backed user adds its query to every uncached request on top
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachingAuthenticationProviderBenchmark {
+    @Param({"true", "false"})
+    private boolean caching;
+
+    private AuthenticationProvider authenticationProvider;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        daoAuthenticationProvider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername("devdojo")
+                .password(passwordEncoder.encode("academy"))
+                .roles("USER")
+                .build()));
+
+        authenticationProvider = caching
+                ? new CachingAuthenticationProvider(new ProviderManager(daoAuthenticationProvider),
+                        new AuthenticationCache(new DevDojoProperties()))
+                : daoAuthenticationProvider;
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("devdojo", "academy"));
+    }
+}
@@ -0,0 +1,139 @@
+package academy.devdojo.springboot2essentials.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import academy.devdojo.springboot2essentials.Springboot2EssentialsApplication;
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.request.CountMode;
+import academy.devdojo.springboot2essentials.util.KeysetCursor;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
+import academy.devdojo.springboot2essentials.wrapper.BatchItemResult;
+import academy.devdojo.springboot2essentials.wrapper.KeysetResponse;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimeServiceBenchmark {
+    private static final int ROWS = 10_000;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("id"));
+    private static final int BATCH_ROWS = 500;
+    private static final int PAGE_SIZE = 20;
+    // the last page, OFFSET has to walk past every row before it while the keyset seeks straight to it
+    private static final Pageable DEEP_PAGE = PageRequest.of(ROWS / PAGE_SIZE - 1, PAGE_SIZE, Sort.by("id"));
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+    private long nextId;
+    private String deepPageCursor;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Springboot2EssentialsApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "logging.level.org.hibernate.SQL=INFO")
+                .run();
+        animeService = context.getBean(AnimeService.class);
+        animeService.saveAll(IntStream.range(0, ROWS)
+                .mapToObj(row -> AnimePostRequestBody.builder().name("Anime " + row).build())
+                .iterator());
+
+        List<Anime> pageBeforeDeepPage = animeService.listAll(DEEP_PAGE.previousOrFirst()).getContent();
+        deepPageCursor = KeysetCursor.of(pageBeforeDeepPage.get(pageBeforeDeepPage.size() - 1).getId(), null)
+                .encode();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Anime findById() {
+        nextId = nextId % ROWS + 1;
+        return animeService.findByIdOrThrowBadRequestException(nextId);
+    }
+
+    @Benchmark
+    public List<Anime> findByName() {
+        return animeService.findByName("Anime 42");
+    }
+
+    @Benchmark
+    public Page<Anime> listAll() {
+        return animeService.listAll(FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<AnimeSummary> listSummaries() {
+        return animeService.listSummaries(FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<Anime> listAllDeepPageOffset() {
+        return animeService.listAll(DEEP_PAGE, CountMode.NONE);
+    }
+
+    @Benchmark
+    public KeysetResponse<Anime> listAfterDeepPageKeyset() {
+        return animeService.listAfter(deepPageCursor, PAGE_SIZE, "id");
+    }
+
+    // every fork starts from a fresh in-memory database, so the rows this adds never leak into the reads above
+    @Benchmark
+    public Anime save() {
+        return animeService.save(AnimePostRequestBody.builder().name("Benchmark Anime").build());
+    }
+
+    // rows/s of the JDBC-batched insert against the same rows saved one request at a time
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH_ROWS)
+    public List<BatchItemResult> saveAllBatched() {
+        return animeService.saveAll(IntStream.range(0, BATCH_ROWS)
+                .mapToObj(row -> AnimePostRequestBody.builder().name("Benchmark Anime " + row).build())
+                .iterator());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH_ROWS)
+    public void saveOneByOne(Blackhole blackhole) {
+        for (int row = 0; row < BATCH_ROWS; row++) {
+            blackhole.consume(animeService.save(AnimePostRequestBody.builder()
+                    .name("Benchmark Anime " + row)
+                    .build()));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package academy.devdojo.springboot2essentials.wrapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+    private static final int TOTAL_ELEMENTS = 100_000;
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    // the same builder Boot configures the HTTP message converters from
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private Anime anime;
+    private Page<Anime> page;
+    private PageableResponse<Anime> pageableResponse;
+
+    @Setup
+    public void setUp() {
+        List<Anime> animes = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> Anime.builder().id(id).name("Anime " + id).version(0).build())
+                .collect(Collectors.toList());
+        int totalPages = (TOTAL_ELEMENTS + pageSize - 1) / pageSize;
+
+        anime = animes.get(0);
+        page = new PageImpl<>(animes, PageRequest.of(0, pageSize), TOTAL_ELEMENTS);
+        pageableResponse = new PageableResponse<>(animes, 0, pageSize, TOTAL_ELEMENTS, false, true, totalPages,
+                pageSize, null, null);
+    }
+
+    @Benchmark
+    public byte[] serializeAnime() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(anime);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializePageableResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pageableResponse);
+    }
+}
@@ -0,0 +1,106 @@
+package academy.devdojo.springboot2essentials.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import academy.devdojo.springboot2essentials.Springboot2EssentialsApplication;
+import academy.devdojo.springboot2essentials.client.AnimeClient;
+import academy.devdojo.springboot2essentials.client.AnimeClientConfig;
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.domain.DevDojoUser;
+import academy.devdojo.springboot2essentials.repository.DevDojoUserRepository;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+public class AnimeClientThroughput {
+    private static final int THREADS = 16;
+    private static final int REQUESTS_PER_THREAD = 2_000;
+    private static final String USERNAME = "devdojo2";
+    private static final String PASSWORD = "academy";
+    private static final String ENCODED_PASSWORD = "{bcrypt}$2a$10$q1OPl/nVTyRFlgQXTA.y4.VpqCw8mvg8wSEAeQzLriV65v8W5eDeK";
+
+    // the arguments are passed to the application, e.g. --spring.datasource.url of a dedicated database instead of the
+    // in-memory one
+    public static void main(String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                Springboot2EssentialsApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:client-throughput",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "logging.level.org.hibernate.SQL=INFO")
+                .run(args)) {
+            seedUser(context.getBean(DevDojoUserRepository.class));
+            run("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+        }
+    }
+
+    // the run deletes the anime it saved, so the user needs the admin role as well
+    private static void seedUser(DevDojoUserRepository devDojoUserRepository) {
+        if (devDojoUserRepository.findByUsername(USERNAME) == null) {
+            devDojoUserRepository.save(DevDojoUser.builder()
+                    .name("Client throughput")
+                    .username(USERNAME)
+                    .password(ENCODED_PASSWORD)
+                    .authorities("ROLE_USER,ROLE_ADMIN")
+                    .build());
+        }
+    }
+
+    private static void run(String baseUrl) throws Exception {
+        AnimeClientConfig config = AnimeClientConfig.builder()
+                .baseUrl(baseUrl)
+                .username(USERNAME)
+                .password(PASSWORD)
+                .maxConnections(THREADS)
+                .maxConnectionsPerRoute(THREADS)
+                .build();
+
+        try (AnimeClient animeClient = new AnimeClient(config)) {
+            long id = animeClient.save(AnimePostRequestBody.builder().name("Throughput").build()).getId();
+
+            run("warm-up", REQUESTS_PER_THREAD / 4, ignored -> animeClient.findById(id));
+            run("pooled AnimeClient", REQUESTS_PER_THREAD, ignored -> animeClient.findById(id));
+            run("RestTemplate per call", REQUESTS_PER_THREAD, ignored -> new RestTemplateBuilder()
+                    .rootUri(baseUrl)
+                    .basicAuthentication(USERNAME, PASSWORD)
+                    .build()
+                    .getForObject("/animes/{id}", Anime.class, id));
+
+            animeClient.delete(id);
+        }
+    }
+
+    private static void run(String name, int requestsPerThread, LongConsumer call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int thread = 0; thread < THREADS; thread++) {
+            futures.add(executor.submit(() -> {
+                for (long request = 0; request < requestsPerThread; request++) {
+                    call.accept(request);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        long requests = (long) THREADS * requestsPerThread;
+        log.info("{}: {} requests in {} ms, {} requests/s", name, requests, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                requests * TimeUnit.SECONDS.toNanos(1) / elapsed);
+    }
+}
@@ -0,0 +1,176 @@
+package academy.devdojo.springboot2essentials.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import academy.devdojo.springboot2essentials.Springboot2EssentialsApplication;
+import academy.devdojo.springboot2essentials.domain.DevDojoUser;
+import academy.devdojo.springboot2essentials.repository.DevDojoUserRepository;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.service.AnimeService;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+public class AnimeLoadGenerator {
+    private static final int RATE = Integer.getInteger("loadtest.rate", 500);
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("loadtest.warm-up", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("loadtest.duration", 30));
+    private static final int ANIMES = Integer.getInteger("loadtest.animes", 10_000);
+    private static final int USERS = Integer.getInteger("loadtest.users", 100);
+    private static final long SEED = Long.getLong("loadtest.seed", 42);
+    private static final Path OUTPUT = Paths.get(System.getProperty("loadtest.output", "target/load-test"));
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    // "academy" hashed with bcrypt, the same password AnimeControllerIT signs in with
+    private static final String PASSWORD = "{bcrypt}$2a$10$q1OPl/nVTyRFlgQXTA.y4.VpqCw8mvg8wSEAeQzLriV65v8W5eDeK";
+
+    // the arguments are passed to the application, each workload gets its own context and in-memory database
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(OUTPUT);
+        for (String workload : System.getProperty("loadtest.workloads", "READ_HEAVY,WRITE_HEAVY,SEARCH,PAGED_SCAN")
+                .split(",")) {
+            run(Workload.valueOf(workload.trim()), args);
+        }
+    }
+
+    private static void run(Workload workload, String[] args) throws IOException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                Springboot2EssentialsApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-test-" + workload.name().toLowerCase(),
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "logging.level.org.hibernate.SQL=INFO")
+                .run(args)) {
+            URI baseUri = URI.create("http://localhost:"
+                    + ((WebServerApplicationContext) context).getWebServer().getPort());
+            List<String> authorizations = seed(context);
+            HttpClient httpClient = HttpClient.newBuilder().build();
+            SplittableRandom random = new SplittableRandom(SEED);
+
+            drive(httpClient, baseUri, workload, authorizations, random, WARM_UP);
+            long start = System.nanoTime();
+            Map<Endpoint, Result> results = drive(httpClient, baseUri, workload, authorizations, random, MEASUREMENT);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            for (Map.Entry<Endpoint, Result> result : results.entrySet()) {
+                report(workload, result.getKey(), result.getValue(), seconds);
+            }
+        }
+    }
+
+    private static List<String> seed(ConfigurableApplicationContext context) {
+        context.getBean(AnimeService.class).saveAll(IntStream.range(0, ANIMES)
+                .mapToObj(row -> AnimePostRequestBody.builder().name(Endpoint.name(row)).build())
+                .iterator());
+
+        List<DevDojoUser> users = IntStream.range(0, USERS)
+                .mapToObj(user -> DevDojoUser.builder()
+                        .name("Load test user " + user)
+                        .username("load-test-" + user)
+                        .password(PASSWORD)
+                        .authorities("ROLE_USER")
+                        .build())
+                .collect(Collectors.toList());
+        context.getBean(DevDojoUserRepository.class).saveAll(users);
+
+        return users.stream()
+                .map(user -> "Basic " + Base64.getEncoder().encodeToString((user.getUsername() + ":academy")
+                        .getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.toList());
+    }
+
+    private static Map<Endpoint, Result> drive(HttpClient httpClient, URI baseUri, Workload workload,
+            List<String> authorizations, SplittableRandom random, Duration duration) {
+        Map<Endpoint, Result> results = new EnumMap<>(Endpoint.class);
+        List<CompletableFuture<Void>> responses = new ArrayList<>();
+        long interval = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long requests = duration.toNanos() / interval;
+        long start = System.nanoTime();
+
+        for (long request = 0; request < requests; request++) {
+            // requests follow a fixed schedule instead of waiting for each other, and their latency is taken from
+            // the moment they were due, so a stalled server shows up as the queueing delay users would really see
+            long intendedStart = start + request * interval;
+            long delay;
+            while ((delay = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            Endpoint endpoint = workload.next(random);
+            Result result = results.computeIfAbsent(endpoint, ignored -> new Result());
+            HttpRequest httpRequest = endpoint.request(baseUri, random, ANIMES)
+                    .header("Authorization", authorizations.get(random.nextInt(authorizations.size())))
+                    .timeout(REQUEST_TIMEOUT)
+                    .build();
+            responses.add(httpClient.sendAsync(httpRequest, BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        result.record(System.nanoTime() - intendedStart, error == null && response.statusCode() < 400);
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+        return results;
+    }
+
+    private static void report(Workload workload, Endpoint endpoint, Result result, double seconds)
+            throws IOException {
+        Histogram histogram = result.latencies;
+        log.info("{} {}: {} requests, {} errors, {} req/s, p50 {} ms, p99 {} ms, p999 {} ms, max {} ms",
+                workload, endpoint, histogram.getTotalCount(), result.errors.sum(),
+                Math.round(histogram.getTotalCount() / seconds), millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+
+        // the full distributions can be plotted or compared between commits with the HdrHistogram tools
+        Path distribution = OUTPUT.resolve(workload.name().toLowerCase() + "-" + endpoint.name().toLowerCase()
+                + ".hgrm");
+        try (PrintStream printStream = new PrintStream(Files.newOutputStream(distribution), false,
+                StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(printStream, 1_000.0);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static class Result {
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long nanos, boolean successful) {
+            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (!successful) {
+                errors.increment();
+            }
+        }
+    }
+}
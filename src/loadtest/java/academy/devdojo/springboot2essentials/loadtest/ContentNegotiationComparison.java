@@ -0,0 +1,80 @@
+package academy.devdojo.springboot2essentials.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+public class ContentNegotiationComparison {
+    private static final int ROWS = 10_000;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+    private static final String[] WORDS = {"Naruto", "Shippuden", "Bleach", "Berserk", "Hellsing", "Ultimate",
+            "Kimetsu", "no", "Yaiba", "Shingeki", "Kyojin", "Fullmetal", "Alchemist", "Brotherhood", "Steins", "Gate"};
+
+    public static void main(String[] args) throws IOException {
+        List<Anime> animes = animes(new Random(42));
+
+        run("json", Jackson2ObjectMapperBuilder.json().build(), animes);
+        run("cbor", Jackson2ObjectMapperBuilder.cbor().build(), animes);
+        run("smile", Jackson2ObjectMapperBuilder.smile().build(), animes);
+    }
+
+    private static List<Anime> animes(Random random) {
+        return IntStream.rangeClosed(1, ROWS)
+                .mapToObj(id -> Anime.builder()
+                        .id((long) id)
+                        .name(IntStream.range(0, 1 + random.nextInt(4))
+                                .mapToObj(word -> WORDS[random.nextInt(WORDS.length)])
+                                .collect(Collectors.joining(" ")))
+                        .version(random.nextInt(5))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static void run(String format, ObjectMapper mapper, List<Anime> animes) throws IOException {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            gzip(mapper.writeValueAsBytes(animes));
+        }
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long serializationCpu = 0;
+        long compressionCpu = 0;
+        byte[] body = null;
+        byte[] compressed = null;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = threadMXBean.getCurrentThreadCpuTime();
+            body = mapper.writeValueAsBytes(animes);
+            long serialized = threadMXBean.getCurrentThreadCpuTime();
+            compressed = gzip(body);
+            serializationCpu += serialized - start;
+            compressionCpu += threadMXBean.getCurrentThreadCpuTime() - serialized;
+        }
+
+        log.info("{}: {} rows, {} bytes, {} bytes gzipped, {} us serialization CPU, {} us gzip CPU per listing",
+                format, animes.size(), body.length, compressed.length,
+                serializationCpu / MEASURED_ROUNDS / 1_000, compressionCpu / MEASURED_ROUNDS / 1_000);
+    }
+
+    // the same deflater the servlet container applies when server.compression kicks in
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(body);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,98 @@
+package academy.devdojo.springboot2essentials.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import academy.devdojo.springboot2essentials.util.KeysetCursor;
+
+enum Endpoint {
+    FIND_BY_ID {
+        @Override
+        HttpRequest.Builder request(URI baseUri, SplittableRandom random, int animes) {
+            return HttpRequest.newBuilder(baseUri.resolve("/animes/" + id(random, animes)));
+        }
+    },
+    LIST_PAGE {
+        @Override
+        HttpRequest.Builder request(URI baseUri, SplittableRandom random, int animes) {
+            return HttpRequest.newBuilder(baseUri.resolve("/animes?size=" + PAGE_SIZE + "&sort=id&page="
+                    + random.nextInt(Math.max(1, animes / PAGE_SIZE))));
+        }
+    },
+    LIST_AFTER {
+        @Override
+        HttpRequest.Builder request(URI baseUri, SplittableRandom random, int animes) {
+            return HttpRequest.newBuilder(baseUri.resolve("/animes?size=" + PAGE_SIZE + "&after="
+                    + KeysetCursor.of(id(random, animes), null).encode()));
+        }
+    },
+    LIST_SUMMARIES {
+        @Override
+        HttpRequest.Builder request(URI baseUri, SplittableRandom random, int animes) {
+            return HttpRequest.newBuilder(baseUri.resolve("/animes/summaries?size=" + PAGE_SIZE + "&sort=id&page="
+                    + random.nextInt(Math.max(1, animes / PAGE_SIZE))));
+        }
+    },
+    FIND_BY_NAME {
+        @Override
+        HttpRequest.Builder request(URI baseUri, SplittableRandom random, int animes) {
+            return HttpRequest.newBuilder(baseUri.resolve("/animes/find?name="
+                    + encode(name(id(random, animes)))));
+        }
+    },
+    FIND_BY_PREFIX {
+        @Override
+        HttpRequest.Builder request(URI baseUri, SplittableRandom random, int animes) {
+            return HttpRequest.newBuilder(baseUri.resolve("/animes/find?size=" + PAGE_SIZE + "&prefix="
+                    + encode(name(random.nextInt(Math.max(1, animes / 100))))));
+        }
+    },
+    SUGGEST {
+        @Override
+        HttpRequest.Builder request(URI baseUri, SplittableRandom random, int animes) {
+            return HttpRequest.newBuilder(baseUri.resolve("/animes/suggest?q="
+                    + encode(name(random.nextInt(Math.max(1, animes / 1000))))));
+        }
+    },
+    SAVE {
+        @Override
+        HttpRequest.Builder request(URI baseUri, SplittableRandom random, int animes) {
+            return json(HttpRequest.newBuilder(baseUri.resolve("/animes"))
+                    .POST(BodyPublishers.ofString("{\"name\":\"Load test anime\"}")));
+        }
+    },
+    REPLACE {
+        @Override
+        HttpRequest.Builder request(URI baseUri, SplittableRandom random, int animes) {
+            long id = id(random, animes);
+            // the seeded name is written back, so searches keep finding the same rows during the run
+            return json(HttpRequest.newBuilder(baseUri.resolve("/animes"))
+                    .PUT(BodyPublishers.ofString("{\"id\":" + id + ",\"name\":\"" + name(id - 1) + "\"}")));
+        }
+    };
+
+    private static final int PAGE_SIZE = 20;
+
+    abstract HttpRequest.Builder request(URI baseUri, SplittableRandom random, int animes);
+
+    // the animes are seeded into an empty database, so row n gets the id n + 1
+    static String name(long row) {
+        return "Anime " + row;
+    }
+
+    private static long id(SplittableRandom random, int animes) {
+        return 1 + random.nextInt(animes);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder builder) {
+        return builder.header("Content-Type", "application/json");
+    }
+}
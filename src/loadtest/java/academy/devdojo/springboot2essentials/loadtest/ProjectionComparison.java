@@ -0,0 +1,86 @@
+package academy.devdojo.springboot2essentials.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import academy.devdojo.springboot2essentials.Springboot2EssentialsApplication;
+import academy.devdojo.springboot2essentials.repository.AnimeRepository;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.service.AnimeService;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+public class ProjectionComparison {
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 10_000;
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    // the arguments are passed to the application, e.g. --spring.datasource.url of a dedicated database to read from
+    // instead of the in-memory one
+    public static void main(String[] args) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                Springboot2EssentialsApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:projection-comparison",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "logging.level.org.hibernate.SQL=INFO")
+                .run(args)) {
+            AnimeService animeService = context.getBean(AnimeService.class);
+            seed(animeService, context.getBean(AnimeRepository.class).count());
+
+            run("entity", pageable -> animeService.listAll(pageable).getNumberOfElements());
+            run("projection", pageable -> animeService.listSummaries(pageable).getNumberOfElements());
+        }
+    }
+
+    private static void seed(AnimeService animeService, long existingRows) {
+        if (existingRows >= ROWS) {
+            return;
+        }
+        animeService.saveAll(IntStream.range((int) existingRows, ROWS)
+                .mapToObj(row -> AnimePostRequestBody.builder().name("Anime " + row).build())
+                .iterator());
+    }
+
+    private static void run(String path, ToIntFunction<Pageable> page) {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            readAll(page);
+        }
+
+        // everything from the query to the mapped page happens on the calling thread
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long rows = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            rows += readAll(page);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        log.info("{}: {} rows in pages of {}, {} rows/s, {} bytes allocated per row", path, rows, PAGE_SIZE,
+                Math.round(rows * 1_000_000_000.0 / elapsed), rows == 0 ? 0 : allocated / rows);
+    }
+
+    private static long readAll(ToIntFunction<Pageable> page) {
+        long rows = 0;
+        for (int pageNumber = 0; (long) pageNumber * PAGE_SIZE < ROWS; pageNumber++) {
+            rows += page.applyAsInt(PageRequest.of(pageNumber, PAGE_SIZE, Sort.by("id")));
+        }
+        return rows;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,144 @@
+package academy.devdojo.springboot2essentials.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import academy.devdojo.springboot2essentials.Springboot2EssentialsApplication;
+import academy.devdojo.springboot2essentials.client.AnimeClientConfig;
+import academy.devdojo.springboot2essentials.client.AsyncAnimeClient;
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.domain.DevDojoUser;
+import academy.devdojo.springboot2essentials.repository.AnimeRepository;
+import academy.devdojo.springboot2essentials.repository.DevDojoUserRepository;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+public class ServingModeComparison {
+    private static final int CONCURRENCY = 1_000;
+    private static final Duration WARM_UP = Duration.ofSeconds(10);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+    private static final String CLIENT_THREAD_PREFIX = "HttpClient-";
+    private static final String USERNAME = "devdojo2";
+    private static final String PASSWORD = "academy";
+    private static final String ENCODED_PASSWORD = "{bcrypt}$2a$10$q1OPl/nVTyRFlgQXTA.y4.VpqCw8mvg8wSEAeQzLriV65v8W5eDeK";
+
+    // the arguments are passed to both applications, e.g. --spring.datasource.url and --spring.r2dbc.url of a dedicated
+    // database behind a latency-injecting proxy instead of the in-memory one
+    public static void main(String[] args) throws Exception {
+        run("servlet", new String[0], args);
+        run("reactive", new String[]{"reactive"}, args);
+    }
+
+    private static void run(String mode, String[] profiles, String[] args) throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                Springboot2EssentialsApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:serving-mode-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///serving-mode-" + mode + "?options=DB_CLOSE_DELAY=-1",
+                        "spring.r2dbc.username=sa",
+                        "spring.r2dbc.password=")
+                .run(args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            long id = context.getBean(AnimeRepository.class).save(Anime.builder().name("Serving mode").build()).getId();
+            DevDojoUserRepository devDojoUserRepository = context.getBean(DevDojoUserRepository.class);
+            if (devDojoUserRepository.findByUsername(USERNAME) == null) {
+                devDojoUserRepository.save(DevDojoUser.builder()
+                        .name("Serving mode")
+                        .username(USERNAME)
+                        .password(ENCODED_PASSWORD)
+                        .authorities("ROLE_USER")
+                        .build());
+            }
+            AsyncAnimeClient asyncAnimeClient = new AsyncAnimeClient(AnimeClientConfig.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .username(USERNAME)
+                    .password(PASSWORD)
+                    .maxConcurrentRequests(CONCURRENCY)
+                    .maxRetries(0)
+                    .build());
+
+            drive(asyncAnimeClient, id, WARM_UP, new ConcurrentLinkedQueue<>(), new AtomicInteger());
+
+            Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+            AtomicInteger errors = new AtomicInteger();
+            AtomicLong peakServerThreads = new AtomicLong();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleAtFixedRate(() -> peakServerThreads.accumulateAndGet(serverThreads(), Math::max),
+                    0, 100, TimeUnit.MILLISECONDS);
+            drive(asyncAnimeClient, id, MEASUREMENT, latencies, errors);
+            sampler.shutdownNow();
+
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            log.info("{}: {} requests, {} errors, p50 {} ms, p99 {} ms, max {} ms, peak server threads {}",
+                    mode, sorted.length, errors.get(), millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]),
+                    peakServerThreads.get());
+        }
+    }
+
+    private static void drive(AsyncAnimeClient asyncAnimeClient, long id, Duration duration, Queue<Long> latencies,
+            AtomicInteger errors) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        CountDownLatch finished = new CountDownLatch(CONCURRENCY);
+        // a fixed number of users, each one sends its next request as soon as the previous one is answered
+        for (int user = 0; user < CONCURRENCY; user++) {
+            request(asyncAnimeClient, id, deadline, latencies, errors, finished);
+        }
+        finished.await();
+    }
+
+    private static void request(AsyncAnimeClient asyncAnimeClient, long id, long deadline, Queue<Long> latencies,
+            AtomicInteger errors, CountDownLatch finished) {
+        long start = System.nanoTime();
+        asyncAnimeClient.findById(id).whenComplete((anime, error) -> {
+            latencies.add(System.nanoTime() - start);
+            if (error != null) {
+                errors.incrementAndGet();
+            }
+            if (System.nanoTime() < deadline) {
+                request(asyncAnimeClient, id, deadline, latencies, errors, finished);
+            } else {
+                finished.countDown();
+            }
+        });
+    }
+
+    private static long serverThreads() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return Arrays.stream(threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds()))
+                .filter(Objects::nonNull)
+                .map(ThreadInfo::getThreadName)
+                .filter(name -> !name.startsWith(CLIENT_THREAD_PREFIX))
+                .count();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
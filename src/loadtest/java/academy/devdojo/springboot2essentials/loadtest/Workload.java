@@ -0,0 +1,32 @@
+package academy.devdojo.springboot2essentials.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+enum Workload {
+    READ_HEAVY(Map.of(Endpoint.FIND_BY_ID, 70, Endpoint.LIST_PAGE, 20, Endpoint.SAVE, 5, Endpoint.REPLACE, 5)),
+    WRITE_HEAVY(Map.of(Endpoint.SAVE, 45, Endpoint.REPLACE, 45, Endpoint.FIND_BY_ID, 10)),
+    SEARCH(Map.of(Endpoint.FIND_BY_NAME, 40, Endpoint.FIND_BY_PREFIX, 30, Endpoint.SUGGEST, 30)),
+    PAGED_SCAN(Map.of(Endpoint.LIST_PAGE, 40, Endpoint.LIST_AFTER, 40, Endpoint.LIST_SUMMARIES, 20));
+
+    // an EnumMap iterates in declaration order, which keeps the picks reproducible for a given seed
+    private final Map<Endpoint, Integer> weights;
+    private final int totalWeight;
+
+    Workload(Map<Endpoint, Integer> weights) {
+        this.weights = new EnumMap<>(weights);
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    Endpoint next(SplittableRandom random) {
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<Endpoint, Integer> weight : weights.entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("The weights of " + name() + " do not add up");
+    }
+}
@@ -2,8 +2,10 @@ package academy.devdojo.springboot2essentials;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class Springboot2EssentialsApplication {
 
 	public static void main(String[] args) {
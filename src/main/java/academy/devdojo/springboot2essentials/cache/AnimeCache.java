@@ -0,0 +1,85 @@
+package academy.devdojo.springboot2essentials.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.wrapper.CacheStatistics;
+
+@Component
+public class AnimeCache {
+    private static final String NAME = "anime";
+
+    private final AsyncCache<Long, Optional<Anime>> cache;
+
+    public AnimeCache(DevDojoProperties devDojoProperties) {
+        DevDojoProperties.Cache properties = devDojoProperties.getAnimeCache();
+        long ttl = properties.getTtl().toNanos();
+        long negativeTtl = properties.getNegativeTtl().toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                // the blocking loaders run on the calling thread, inside its transaction, like with a synchronous cache
+                .executor(Runnable::run)
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<Long, Optional<Anime>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<Anime> anime, long currentTime) {
+                        return anime.isPresent() ? ttl : negativeTtl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<Anime> anime, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(id, anime, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<Anime> anime, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<Anime> get(Long id, Function<Long, Optional<Anime>> loader) {
+        return cache.synchronous().get(id, loader);
+    }
+
+    // an eviction while the load is in flight drops it, so a non-blocking loader cannot cache a row it read before
+    // a write committed either
+    public CompletableFuture<Optional<Anime>> getAsync(Long id,
+            Function<Long, CompletableFuture<Optional<Anime>>> loader) {
+        return cache.get(id, (missingId, executor) -> loader.apply(missingId));
+    }
+
+    public Map<Long, Optional<Anime>> getAll(Collection<Long> ids,
+            Function<Set<Long>, Map<Long, Optional<Anime>>> loader) {
+        return cache.synchronous().getAll(ids, missingIds -> {
+            Set<Long> idsToLoad = new HashSet<>();
+            missingIds.forEach(idsToLoad::add);
+            return loader.apply(idsToLoad);
+        });
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        cache.synchronous().invalidateAll(ids);
+    }
+
+    public CacheStatistics statistics() {
+        return CacheStatistics.of(NAME, cache.synchronous());
+    }
+}
@@ -0,0 +1,43 @@
+package academy.devdojo.springboot2essentials.cache;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.domain.AnimeRevision;
+import academy.devdojo.springboot2essentials.repository.AnimeRevisionRepository;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class AnimeChangeCounter {
+    private static final long SECOND = 1000;
+
+    private final AnimeRevisionRepository animeRevisionRepository;
+
+    // joins the writing transaction, so every instance sees the new revision exactly when the write commits and a
+    // rolled back write never changes it
+    public void increment() {
+        animeRevisionRepository.increment(AnimeRevision.ID, currentSecond());
+    }
+
+    // read through the same routing as the listing that follows, a lagging replica answers both with the old state
+    public Optional<AnimeRevision> current() {
+        return animeRevisionRepository.findById(AnimeRevision.ID);
+    }
+
+    public static String etag(AnimeRevision animeRevision, String accept) {
+        String revision = Long.toString(animeRevision.getRevision(), Character.MAX_RADIX);
+        // /animes/all has a JSON, an NDJSON and binary representations, the validator must tell them apart
+        String version = accept == null ? revision : revision + "-" + Integer.toHexString(accept.hashCode());
+        // weak, because the same representation goes out gzip-compressed or not, and Tomcat does not compress
+        // responses that carry a strong ETag
+        return "W/\"" + version + "\"";
+    }
+
+    public static long currentSecond() {
+        // the real change time, Last-Modified must never be in the future (RFC 7232 2.2.1), changes within the same
+        // second as a previous response are caught by the ETag, which If-None-Match clients send and is checked first
+        return System.currentTimeMillis() / SECOND * SECOND;
+    }
+}
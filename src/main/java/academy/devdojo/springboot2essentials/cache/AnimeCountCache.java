@@ -0,0 +1,45 @@
+package academy.devdojo.springboot2essentials.cache;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.repository.AnimeRepository;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class AnimeCountCache {
+    private static final long UNKNOWN = -1;
+
+    private final AnimeRepository animeRepository;
+    private final AtomicLong count = new AtomicLong(UNKNOWN);
+
+    public long get() {
+        long current = count.get();
+        return current == UNKNOWN ? refresh() : current;
+    }
+
+    // the count without running the query, empty until the first refresh
+    public OptionalLong getIfPresent() {
+        long current = count.get();
+        return current == UNKNOWN ? OptionalLong.empty() : OptionalLong.of(current);
+    }
+
+    public void set(long exact) {
+        count.set(exact);
+    }
+
+    public void add(long delta) {
+        count.getAndUpdate(current -> current == UNKNOWN ? UNKNOWN : Math.max(0, current + delta));
+    }
+
+    @Scheduled(fixedDelayString = "#{@devDojoProperties.animeCount.refreshInterval.toMillis()}")
+    public long refresh() {
+        long exact = animeRepository.count();
+        set(exact);
+        return exact;
+    }
+}
@@ -0,0 +1,80 @@
+package academy.devdojo.springboot2essentials.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Objects;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+import academy.devdojo.springboot2essentials.domain.DevDojoUser;
+import academy.devdojo.springboot2essentials.wrapper.CacheStatistics;
+
+@Component
+public class AuthenticationCache {
+    private static final String NAME = "authentication";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, Authentication> cache;
+    // Mac.getInstance and init cost more than hashing the credentials, so every thread keeps an initialised one
+    private final ThreadLocal<Mac> macs;
+
+    public AuthenticationCache(DevDojoProperties devDojoProperties) {
+        DevDojoProperties.Cache properties = devDojoProperties.getAuthenticationCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec secretKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> createMac(secretKey));
+    }
+
+    public Authentication get(String username, String password) {
+        return cache.getIfPresent(keyOf(username, password));
+    }
+
+    public void put(String username, String password, Authentication authentication) {
+        cache.put(keyOf(username, password), authentication);
+    }
+
+    public void evict(DevDojoUser devDojoUser) {
+        cache.asMap().values().removeIf(authentication -> authentication.getPrincipal() instanceof DevDojoUser
+                ? Objects.equals(((DevDojoUser) authentication.getPrincipal()).getId(), devDojoUser.getId())
+                : authentication.getName().equals(devDojoUser.getUsername()));
+    }
+
+    public CacheStatistics statistics() {
+        return CacheStatistics.of(NAME, cache);
+    }
+
+    private String keyOf(String username, String password) {
+        // doFinal resets the mac, so it is ready for the next key
+        Mac mac = macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Mac createMac(SecretKeySpec secretKey) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to hash credentials", e);
+        }
+    }
+}
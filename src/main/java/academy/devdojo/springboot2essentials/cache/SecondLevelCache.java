@@ -0,0 +1,45 @@
+package academy.devdojo.springboot2essentials.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.wrapper.CacheRegionStatistics;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCache {
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager hibernateCacheManager;
+
+    public List<CacheRegionStatistics> statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionStatistics> regions = new ArrayList<>();
+        for (String region : SecondLevelCacheRegions.ENTITIES) {
+            regions.add(CacheRegionStatistics.of(region, size(region),
+                    statistics.getDomainDataRegionStatistics(region)));
+        }
+        for (String region : SecondLevelCacheRegions.QUERIES) {
+            // named query regions only show up in the statistics once a query has used them
+            org.hibernate.stat.CacheRegionStatistics regionStatistics = statistics.getQueryRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.add(CacheRegionStatistics.of(region, size(region), regionStatistics));
+            }
+        }
+        return regions;
+    }
+
+    private long size(String region) {
+        Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+        return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+}
@@ -0,0 +1,19 @@
+package academy.devdojo.springboot2essentials.cache;
+
+import java.util.List;
+
+import org.hibernate.cache.spi.RegionFactory;
+
+public final class SecondLevelCacheRegions {
+    public static final String ANIME = "anime";
+    public static final String ANIME_QUERIES = "anime-queries";
+    public static final String DEV_DOJO_USER = "devDojoUser";
+    public static final String DEV_DOJO_USER_QUERIES = "devDojoUser-queries";
+
+    public static final List<String> ENTITIES = List.of(ANIME, DEV_DOJO_USER);
+    public static final List<String> QUERIES = List.of(ANIME_QUERIES, DEV_DOJO_USER_QUERIES,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    private SecondLevelCacheRegions() {
+    }
+}
@@ -0,0 +1,274 @@
+package academy.devdojo.springboot2essentials.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+import academy.devdojo.springboot2essentials.request.CountMode;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSuggestion;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
+import academy.devdojo.springboot2essentials.wrapper.BatchItemResult;
+import academy.devdojo.springboot2essentials.wrapper.BulkOperationResponse;
+import academy.devdojo.springboot2essentials.wrapper.CacheRegionStatistics;
+import academy.devdojo.springboot2essentials.wrapper.CacheStatistics;
+import academy.devdojo.springboot2essentials.wrapper.KeysetResponse;
+import academy.devdojo.springboot2essentials.wrapper.PageableResponse;
+
+public class AnimeClient implements AutoCloseable {
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final ParameterizedTypeReference<PageableResponse<Anime>> ANIME_PAGE =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<KeysetResponse<Anime>> ANIME_KEYSET =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<List<Anime>> ANIME_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<PageableResponse<AnimeSummary>> SUMMARY_PAGE =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<List<AnimeSummary>> SUMMARY_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<List<AnimeSuggestion>> SUGGESTION_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<List<BatchItemResult>> BATCH_ITEM_RESULT_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<List<CacheRegionStatistics>> CACHE_REGION_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final CloseableHttpClient httpClient;
+
+    public AnimeClient(AnimeClientConfig config) {
+        this.httpClient = createHttpClient(config);
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        RestTemplateBuilder restTemplateBuilder = configure(new RestTemplateBuilder(), config, objectMapper)
+                .rootUri(config.getBaseUrl())
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient));
+        if (config.getUsername() != null) {
+            restTemplateBuilder = restTemplateBuilder.basicAuthentication(config.getUsername(), config.getPassword());
+        }
+        this.restTemplate = restTemplateBuilder.build();
+    }
+
+    AnimeClient(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.httpClient = null;
+    }
+
+    public PageableResponse<Anime> list(int page, int size) {
+        return restTemplate.exchange("/animes?page={page}&size={size}", HttpMethod.GET, null, ANIME_PAGE,
+                page, size).getBody();
+    }
+
+    public PageableResponse<Anime> list(int page, int size, CountMode countMode) {
+        return restTemplate.exchange("/animes?page={page}&size={size}&count={count}", HttpMethod.GET, null,
+                ANIME_PAGE, page, size, countMode.name().toLowerCase()).getBody();
+    }
+
+    public Stream<PageableResponse<Anime>> pages(int size) {
+        return Stream.iterate(list(0, size), Objects::nonNull,
+                page -> page.isLast() ? null : list(page.getNumber() + 1, size));
+    }
+
+    public KeysetResponse<Anime> listAfter(String after, int size, String sort) {
+        return restTemplate.exchange("/animes?after={after}&size={size}&sort={sort}", HttpMethod.GET, null,
+                ANIME_KEYSET, after == null ? "" : after, size, sort).getBody();
+    }
+
+    public Stream<Anime> streamAll(int pageSize) {
+        return Stream.iterate(listAfter(null, pageSize, "id"), Objects::nonNull,
+                page -> page.isHasNext() ? listAfter(page.getNextCursor(), pageSize, "id") : null)
+                .flatMap(page -> page.getContent().stream());
+    }
+
+    public List<Anime> listAll() {
+        return restTemplate.exchange("/animes/all", HttpMethod.GET, null, ANIME_LIST).getBody();
+    }
+
+    public PageableResponse<AnimeSummary> listSummaries(int page, int size) {
+        return restTemplate.exchange("/animes/summaries?page={page}&size={size}", HttpMethod.GET, null,
+                SUMMARY_PAGE, page, size).getBody();
+    }
+
+    public List<AnimeSummary> listAllSummaries() {
+        return restTemplate.exchange("/animes/summaries/all", HttpMethod.GET, null, SUMMARY_LIST).getBody();
+    }
+
+    public void forEach(Consumer<Anime> consumer) {
+        restTemplate.execute("/animes/all", HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(APPLICATION_NDJSON)),
+                response -> {
+                    try (MappingIterator<Anime> animes = objectMapper.readerFor(Anime.class)
+                            .readValues(response.getBody())) {
+                        animes.forEachRemaining(consumer);
+                    }
+                    return null;
+                });
+    }
+
+    public Anime findById(long id) {
+        return restTemplate.getForObject("/animes/{id}", Anime.class, id);
+    }
+
+    public Anime findByIdAuthenticationPrincipal(long id) {
+        return restTemplate.getForObject("/animes/by-id/{id}", Anime.class, id);
+    }
+
+    public AnimeLookupResponse findAllById(List<Long> ids) {
+        String joinedIds = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return restTemplate.getForObject("/animes?ids={ids}", AnimeLookupResponse.class, joinedIds);
+    }
+
+    public List<Anime> findByName(String name) {
+        return restTemplate.exchange("/animes/find?name={name}", HttpMethod.GET, null, ANIME_LIST, name).getBody();
+    }
+
+    public PageableResponse<Anime> findByPrefix(String prefix, int page, int size) {
+        return restTemplate.exchange("/animes/find?prefix={prefix}&page={page}&size={size}", HttpMethod.GET, null,
+                ANIME_PAGE, prefix, page, size).getBody();
+    }
+
+    public List<AnimeSuggestion> suggest(String query, int limit) {
+        return restTemplate.exchange("/animes/suggest?q={q}&limit={limit}", HttpMethod.GET, null, SUGGESTION_LIST,
+                query, limit).getBody();
+    }
+
+    public CacheStatistics cacheStatistics() {
+        return restTemplate.getForObject("/animes/admin/cache", CacheStatistics.class);
+    }
+
+    public List<CacheRegionStatistics> cacheRegionStatistics() {
+        return restTemplate.exchange("/animes/admin/cache/regions", HttpMethod.GET, null, CACHE_REGION_LIST)
+                .getBody();
+    }
+
+    public Anime save(AnimePostRequestBody animePostRequestBody) {
+        return restTemplate.postForObject("/animes", animePostRequestBody, Anime.class);
+    }
+
+    public List<BatchItemResult> saveAll(List<AnimePostRequestBody> animePostRequestBodies) {
+        return restTemplate.exchange("/animes/batch", HttpMethod.POST, new HttpEntity<>(animePostRequestBodies),
+                BATCH_ITEM_RESULT_LIST).getBody();
+    }
+
+    public void replace(AnimePutRequestBody animePutRequestBody) {
+        restTemplate.put("/animes", animePutRequestBody);
+    }
+
+    public void replace(AnimePutRequestBody animePutRequestBody, int expectedVersion) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch("\"" + expectedVersion + "\"");
+        restTemplate.exchange("/animes", HttpMethod.PUT, new HttpEntity<>(animePutRequestBody, headers), Void.class);
+    }
+
+    public BulkOperationResponse replaceAll(List<AnimePutRequestBody> animePutRequestBodies) {
+        return restTemplate.exchange("/animes/batch", HttpMethod.PUT, new HttpEntity<>(animePutRequestBodies),
+                BulkOperationResponse.class).getBody();
+    }
+
+    public void delete(long id) {
+        restTemplate.delete("/animes/admin/{id}", id);
+    }
+
+    public BulkOperationResponse deleteAll(List<Long> ids) {
+        return restTemplate.exchange("/animes/admin/batch", HttpMethod.DELETE, new HttpEntity<>(ids),
+                BulkOperationResponse.class).getBody();
+    }
+
+    @Override
+    public void close() {
+        if (httpClient == null) {
+            return;
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static RestTemplateBuilder configure(RestTemplateBuilder restTemplateBuilder, AnimeClientConfig config,
+            ObjectMapper objectMapper) {
+        // JSON comes first, so request bodies stay JSON, the batch endpoints consume nothing else
+        RestTemplateBuilder configured = restTemplateBuilder.messageConverters(
+                new MappingJackson2HttpMessageConverter(objectMapper),
+                new MappingJackson2CborHttpMessageConverter(AnimeClientFormat.CBOR.createObjectMapper()),
+                new MappingJackson2SmileHttpMessageConverter(AnimeClientFormat.SMILE.createObjectMapper()));
+        if (config.getFormat() == AnimeClientFormat.JSON) {
+            return configured;
+        }
+        return configured.additionalInterceptors(accepting(config.getFormat()));
+    }
+
+    private static ClientHttpRequestInterceptor accepting(AnimeClientFormat format) {
+        return (request, body, execution) -> {
+            // the NDJSON stream asks for its own media type
+            if (!request.getHeaders().getAccept().contains(APPLICATION_NDJSON)) {
+                request.getHeaders().setAccept(format.accept());
+            }
+            return execution.execute(request, body);
+        };
+    }
+
+    private static CloseableHttpClient createHttpClient(AnimeClientConfig config) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(config.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(config.getMaxConnectionsPerRoute());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) config.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) config.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) config.getConnectionRequestTimeout().toMillis())
+                .build();
+
+        HttpClientBuilder httpClientBuilder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(config.getIdleConnectionTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        if (!config.isCompression()) {
+            httpClientBuilder.disableContentCompression();
+        }
+        return httpClientBuilder.build();
+    }
+}
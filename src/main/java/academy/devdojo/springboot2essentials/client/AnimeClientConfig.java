@@ -0,0 +1,45 @@
+package academy.devdojo.springboot2essentials.client;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class AnimeClientConfig {
+    @Builder.Default
+    private final String baseUrl = "http://localhost:8080";
+    private final String username;
+    private final String password;
+    @Builder.Default
+    private final Duration connectTimeout = Duration.ofSeconds(2);
+    @Builder.Default
+    private final Duration readTimeout = Duration.ofSeconds(30);
+    @Builder.Default
+    private final Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    @Builder.Default
+    private final Duration idleConnectionTimeout = Duration.ofSeconds(30);
+    @Builder.Default
+    private final int maxConnections = 50;
+    @Builder.Default
+    private final int maxConnectionsPerRoute = 50;
+    @Builder.Default
+    private final boolean compression = true;
+    @Builder.Default
+    private final AnimeClientFormat format = AnimeClientFormat.JSON;
+    @Builder.Default
+    private final int maxConcurrentRequests = 64;
+    @Builder.Default
+    private final int maxQueuedRequests = 1_000;
+    @Builder.Default
+    private final int maxRetries = 3;
+    @Builder.Default
+    private final boolean batchLookup = true;
+    @Builder.Default
+    private final int batchLookupSize = 500;
+    @Builder.Default
+    private final Duration retryBackoff = Duration.ofMillis(100);
+    @Builder.Default
+    private final Duration maxRetryBackoff = Duration.ofSeconds(2);
+}
@@ -0,0 +1,13 @@
+package academy.devdojo.springboot2essentials.client;
+
+import lombok.Getter;
+
+@Getter
+public class AnimeClientException extends RuntimeException {
+    private final int status;
+
+    public AnimeClientException(int status, String body) {
+        super("Anime API answered " + status + ": " + body);
+        this.status = status;
+    }
+}
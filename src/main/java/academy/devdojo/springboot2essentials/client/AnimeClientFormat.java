@@ -0,0 +1,46 @@
+package academy.devdojo.springboot2essentials.client;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public enum AnimeClientFormat {
+    JSON(MediaType.APPLICATION_JSON, Jackson2ObjectMapperBuilder::json),
+    CBOR(MediaType.APPLICATION_CBOR, Jackson2ObjectMapperBuilder::cbor),
+    SMILE(MediaType.parseMediaType("application/x-jackson-smile"), Jackson2ObjectMapperBuilder::smile);
+
+    private static final MediaType JSON_FALLBACK = MediaType.parseMediaType("application/json;q=0.9");
+
+    @Getter
+    private final MediaType mediaType;
+    private final Supplier<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    List<MediaType> accept() {
+        // a server without the binary representation still answers, in JSON
+        return this == JSON ? List.of(mediaType) : List.of(mediaType, JSON_FALLBACK);
+    }
+
+    ObjectMapper createObjectMapper() {
+        return objectMapperBuilder.get().build();
+    }
+
+    static AnimeClientFormat of(String contentType) {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            for (AnimeClientFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,308 @@
+package academy.devdojo.springboot2essentials.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+
+public class AsyncAnimeClient {
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            HttpStatus.BAD_GATEWAY.value(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            HttpStatus.GATEWAY_TIMEOUT.value());
+    private static final String GZIP = "gzip";
+    // the ids travel in the query string, and servers and proxies commonly refuse request lines beyond a few KB
+    static final int MAX_BATCH_QUERY_LENGTH = 2_000;
+
+    private final AnimeClientConfig config;
+    private final HttpClient httpClient;
+    private final Map<AnimeClientFormat, ObjectMapper> objectMappers = new EnumMap<>(AnimeClientFormat.class);
+    private final String accept;
+    private final String authorization;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private volatile boolean batchLookupAvailable;
+
+    public AsyncAnimeClient(AnimeClientConfig config) {
+        this.config = config;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.getConnectTimeout())
+                .build();
+        for (AnimeClientFormat format : AnimeClientFormat.values()) {
+            objectMappers.put(format, format.createObjectMapper());
+        }
+        this.accept = MediaType.toString(config.getFormat().accept());
+        this.authorization = config.getUsername() == null ? null : "Basic " + Base64.getEncoder()
+                .encodeToString((config.getUsername() + ":" + config.getPassword()).getBytes(StandardCharsets.UTF_8));
+        this.concurrencyLimiter = new ConcurrencyLimiter(config.getMaxConcurrentRequests(),
+                config.getMaxQueuedRequests());
+        this.batchLookupAvailable = config.isBatchLookup();
+    }
+
+    public CompletableFuture<Anime> findById(long id) {
+        return get("/animes/" + id, Anime.class);
+    }
+
+    public CompletableFuture<AnimeLookupResponse> getMany(Collection<Long> ids) {
+        List<Long> requestedIds = ids.stream().distinct().collect(Collectors.toList());
+        if (!batchLookupAvailable || requestedIds.isEmpty()) {
+            return fanOut(requestedIds);
+        }
+        return batchLookup(requestedIds)
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    Throwable cause = unwrap(error);
+                    if (!(cause instanceof BatchLookupUnavailableException)) {
+                        return CompletableFuture.<AnimeLookupResponse>failedFuture(cause);
+                    }
+                    batchLookupAvailable = false;
+                    return fanOut(requestedIds);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<AnimeLookupResponse> batchLookup(List<Long> requestedIds) {
+        List<CompletableFuture<AnimeLookupResponse>> batches = new ArrayList<>();
+        for (String joinedIds : joinedBatches(requestedIds)) {
+            batches.add(get("/animes?ids=" + joinedIds, AnimeLookupResponse.class)
+                    .handle((response, error) -> {
+                        Throwable cause = unwrap(error);
+                        // a server without the endpoint answers 404/405 or falls through to the paged listing
+                        if (cause == null ? response.getAnimes() == null : isBatchLookupUnsupported(cause)) {
+                            throw new BatchLookupUnavailableException();
+                        }
+                        if (cause != null) {
+                            throw new CompletionException(cause);
+                        }
+                        return response;
+                    }));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<Long, Anime> found = new ConcurrentHashMap<>();
+                    batches.forEach(batch -> batch.join().getAnimes()
+                            .forEach(anime -> found.put(anime.getId(), anime)));
+                    return lookupResponse(requestedIds, found);
+                });
+    }
+
+    private List<String> joinedBatches(List<Long> requestedIds) {
+        List<String> batches = new ArrayList<>();
+        StringBuilder joinedIds = new StringBuilder();
+        int batchSize = 0;
+        for (Long id : requestedIds) {
+            String value = id.toString();
+            if (batchSize == config.getBatchLookupSize()
+                    || batchSize > 0 && joinedIds.length() + 1 + value.length() > MAX_BATCH_QUERY_LENGTH) {
+                batches.add(joinedIds.toString());
+                joinedIds.setLength(0);
+                batchSize = 0;
+            }
+            if (batchSize > 0) {
+                joinedIds.append(',');
+            }
+            joinedIds.append(value);
+            batchSize++;
+        }
+        batches.add(joinedIds.toString());
+        return batches;
+    }
+
+    private CompletableFuture<AnimeLookupResponse> fanOut(List<Long> requestedIds) {
+        CompletableFuture<AnimeLookupResponse> result = new CompletableFuture<>();
+        Map<Long, Anime> found = new ConcurrentHashMap<>();
+        if (requestedIds.isEmpty()) {
+            result.complete(lookupResponse(requestedIds, found));
+            return result;
+        }
+
+        // only a window of maxConcurrentRequests ids is in flight, the next id is requested when one completes
+        Iterator<Long> pendingIds = requestedIds.iterator();
+        AtomicInteger remaining = new AtomicInteger(requestedIds.size());
+        int window = Math.min(config.getMaxConcurrentRequests(), requestedIds.size());
+        for (int i = 0; i < window; i++) {
+            fetchNext(pendingIds, requestedIds, found, remaining, result);
+        }
+        return result;
+    }
+
+    private void fetchNext(Iterator<Long> pendingIds, List<Long> requestedIds, Map<Long, Anime> found,
+            AtomicInteger remaining, CompletableFuture<AnimeLookupResponse> result) {
+        Long id;
+        synchronized (pendingIds) {
+            if (result.isDone() || !pendingIds.hasNext()) {
+                return;
+            }
+            id = pendingIds.next();
+        }
+        findById(id).whenComplete((anime, error) -> {
+            Throwable cause = unwrap(error);
+            if (cause != null && !isNotFound(cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            if (anime != null) {
+                found.put(id, anime);
+            }
+            if (remaining.decrementAndGet() == 0) {
+                result.complete(lookupResponse(requestedIds, found));
+            } else {
+                fetchNext(pendingIds, requestedIds, found, remaining, result);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> get(String path, Class<T> type) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(config.getBaseUrl() + path))
+                .timeout(config.getReadTimeout())
+                .header(HttpHeaders.ACCEPT, accept)
+                .GET();
+        if (authorization != null) {
+            builder.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        if (config.isCompression()) {
+            // unlike Apache HttpClient, the JDK client neither asks for nor decodes compressed responses on its own
+            builder.header(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        }
+        HttpRequest request = builder.build();
+        return send(request, 0).thenApply(response -> read(response, type));
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> send(HttpRequest request, int attempt) {
+        // every attempt takes its own permit, a request waiting out its retry backoff must not hold one
+        return concurrencyLimiter.submit(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()))
+                .handle((response, error) -> {
+                    if (error == null && response.statusCode() / 100 == 2) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    Throwable failure = error != null
+                            ? unwrap(error)
+                            : new AnimeClientException(response.statusCode(),
+                                    new String(body(response), StandardCharsets.UTF_8));
+                    // only GETs go through here, so they are safe to repeat
+                    if (attempt >= config.getMaxRetries() || !isRetryable(failure)) {
+                        return CompletableFuture.<HttpResponse<byte[]>>failedFuture(failure);
+                    }
+                    return CompletableFuture.runAsync(() -> {
+                    }, CompletableFuture.delayedExecutor(backoff(attempt, response), TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> send(request, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private long backoff(int attempt, HttpResponse<byte[]> response) {
+        long ceiling = Math.min(config.getMaxRetryBackoff().toMillis(),
+                config.getRetryBackoff().toMillis() << Math.min(attempt, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (response != null) {
+            long retryAfter = response.headers().firstValueAsLong(HttpHeaders.RETRY_AFTER).orElse(0);
+            delay = Math.max(delay, TimeUnit.SECONDS.toMillis(retryAfter));
+        }
+        return delay;
+    }
+
+    private <T> T read(HttpResponse<byte[]> response, Class<T> type) {
+        AnimeClientFormat format = AnimeClientFormat.of(
+                response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null));
+        try {
+            return objectMappers.get(format).readValue(body(response), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] body(HttpResponse<byte[]> response) {
+        boolean compressed = response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)
+                .filter(GZIP::equalsIgnoreCase)
+                .isPresent();
+        if (!compressed) {
+            return response.body();
+        }
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static AnimeLookupResponse lookupResponse(List<Long> requestedIds, Map<Long, Anime> found) {
+        List<Anime> animes = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Anime anime = found.get(id);
+            if (anime != null) {
+                animes.add(anime);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return AnimeLookupResponse.builder()
+                .animes(animes)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    private static boolean isRetryable(Throwable failure) {
+        if (failure instanceof AnimeClientException) {
+            return RETRYABLE_STATUSES.contains(((AnimeClientException) failure).getStatus());
+        }
+        return failure instanceof IOException;
+    }
+
+    private static boolean isNotFound(Throwable failure) {
+        // the API answers 400 "Anime not found" for unknown ids
+        return failure instanceof AnimeClientException
+                && (((AnimeClientException) failure).getStatus() == HttpStatus.BAD_REQUEST.value()
+                        || ((AnimeClientException) failure).getStatus() == HttpStatus.NOT_FOUND.value());
+    }
+
+    private static boolean isBatchLookupUnsupported(Throwable failure) {
+        return failure instanceof AnimeClientException
+                && (((AnimeClientException) failure).getStatus() == HttpStatus.NOT_FOUND.value()
+                        || ((AnimeClientException) failure).getStatus() == HttpStatus.METHOD_NOT_ALLOWED.value());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static class BatchLookupUnavailableException extends RuntimeException {
+        BatchLookupUnavailableException() {
+            super("The anime API has no batch lookup endpoint", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package academy.devdojo.springboot2essentials.client;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+final class ConcurrencyLimiter {
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private final int maxWaiting;
+    private int available;
+
+    ConcurrencyLimiter(int permits, int maxWaiting) {
+        this.available = permits;
+        this.maxWaiting = maxWaiting;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> future;
+            try {
+                future = task.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+
+        boolean startNow;
+        synchronized (this) {
+            startNow = available > 0;
+            if (startNow) {
+                available--;
+            } else if (waiting.size() >= maxWaiting) {
+                // an unbounded queue only turns an overloaded server into unbounded client memory and latency
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "More than " + maxWaiting + " requests are already waiting for the anime API"));
+            } else {
+                waiting.add(start);
+            }
+        }
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                available++;
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+}
@@ -1,72 +1,48 @@
 package academy.devdojo.springboot2essentials.client;
 
-import java.util.Arrays;
 import java.util.List;
 
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
-
 import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+import academy.devdojo.springboot2essentials.wrapper.PageableResponse;
 import lombok.extern.log4j.Log4j2;
 
 @Log4j2
 public class SpringClient {
     public static void main(String[] args) {
-        ResponseEntity<Anime> entity = new RestTemplate().getForEntity("http://localhost:8080/animes/{id}", Anime.class,
-                3);
-
-        log.info(entity);
-
-        Anime object = new RestTemplate().getForObject("http://localhost:8080/animes/{id}", Anime.class, 3);
-
-        log.info(object);
-
-        Anime[] animes = new RestTemplate().getForObject("http://localhost:8080/animes/all", Anime[].class);
+        AnimeClientConfig config = AnimeClientConfig.builder()
+                .baseUrl("http://localhost:8080")
+                .username("igor2")
+                .password("academy")
+                .build();
 
-        log.info(Arrays.toString(animes));
+        try (AnimeClient animeClient = new AnimeClient(config)) {
+            Anime object = animeClient.findById(3);
 
-        ResponseEntity<List<Anime>> exchange = new RestTemplate().exchange("http://localhost:8080/animes/all",
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<>() {
-                });
+            log.info(object);
 
-        log.info(exchange.getBody());
+            List<Anime> animes = animeClient.listAll();
 
-        // Anime kingdom = Anime.builder().name("Kingdom").build();
-        // Anime kingdomSaved = new
-        // RestTemplate().postForObject("http://localhost:8080/animes", kingdom,
-        // Anime.class);
-        // log.info("saved anime {}", kingdomSaved);
+            log.info(animes);
 
-        Anime samuraiChamploo = Anime.builder().name("Samurai Champloo").build();
-        ResponseEntity<Anime> samuraiChamplooSaved = new RestTemplate().exchange("http://localhost:8080/animes",
-                HttpMethod.POST, new HttpEntity<>(samuraiChamploo, createJsonHeader()), Anime.class);
-        log.info("saved anime {}", samuraiChamplooSaved);
+            animeClient.pages(5)
+                    .map(PageableResponse::getContent)
+                    .forEach(content -> log.info(content));
 
-        Anime animeToBeUpdated = samuraiChamplooSaved.getBody();
-        animeToBeUpdated.setName("Samurai Champloo 2");
+            Anime samuraiChamplooSaved = animeClient.save(AnimePostRequestBody.builder()
+                    .name("Samurai Champloo")
+                    .build());
+            log.info("saved anime {}", samuraiChamplooSaved);
 
-        ResponseEntity<Void> samuraiChamplooUpdated = new RestTemplate().exchange("http://localhost:8080/animes",
-                HttpMethod.PUT, new HttpEntity<>(animeToBeUpdated, createJsonHeader()), Void.class);
-        log.info(samuraiChamplooUpdated);
-
-        ResponseEntity<Void> samuraiChamplooDeleted = new RestTemplate().exchange("http://localhost:8080/animes/{id}",
-                HttpMethod.DELETE, null, Void.class, animeToBeUpdated.getId());
-        log.info(samuraiChamplooDeleted);
-
-
-
-    }
+            animeClient.replace(AnimePutRequestBody.builder()
+                    .id(samuraiChamplooSaved.getId())
+                    .name("Samurai Champloo 2")
+                    .build(), samuraiChamplooSaved.getVersion());
+            log.info("updated anime {}", animeClient.findById(samuraiChamplooSaved.getId()));
 
-    private static HttpHeaders createJsonHeader() {
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.setContentType(MediaType.APPLICATION_JSON);
-        return httpHeaders;
+            animeClient.delete(samuraiChamplooSaved.getId());
+            log.info("deleted anime {}", samuraiChamplooSaved.getId());
+        }
     }
 }
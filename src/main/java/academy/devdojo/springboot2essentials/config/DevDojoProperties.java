@@ -0,0 +1,67 @@
+package academy.devdojo.springboot2essentials.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "devdojo")
+public class DevDojoProperties {
+    private final Cache animeCache = new Cache();
+    private final Cache authenticationCache = new Cache(10_000, Duration.ofMinutes(1), Duration.ZERO);
+    private final Batch batch = new Batch();
+    private final Count animeCount = new Count();
+    private final Replica replica = new Replica();
+    private final SecondLevelCache secondLevelCache = new SecondLevelCache();
+    private final SqlStatements sqlStatements = new SqlStatements();
+    private final Tracing tracing = new Tracing();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Cache {
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(10);
+        private Duration negativeTtl = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Batch {
+        private int size = 50;
+        private int chunkSize = 1000;
+    }
+
+    @Data
+    public static class Count {
+        private Duration refreshInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Replica {
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+        private long maximumTrackedClients = 100_000;
+    }
+
+    @Data
+    public static class SecondLevelCache {
+        private final Cache entities = new Cache(10_000, Duration.ofMinutes(10), Duration.ZERO);
+        private final Cache queries = new Cache(1_000, Duration.ofMinutes(10), Duration.ZERO);
+    }
+
+    @Data
+    public static class SqlStatements {
+        private boolean headers;
+    }
+
+    @Data
+    public static class Tracing {
+        private double sampleRate = 0.01;
+        private int bufferSize = 4096;
+    }
+}
@@ -0,0 +1,46 @@
+package academy.devdojo.springboot2essentials.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManagerAdapter;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+import academy.devdojo.springboot2essentials.cache.AuthenticationCache;
+import academy.devdojo.springboot2essentials.service.DevDojoUserDetailsService;
+import lombok.RequiredArgsConstructor;
+
+@EnableWebFluxSecurity
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveSecurityConfig {
+    private final DevDojoUserDetailsService devDojoUserDetailsService;
+    private final AuthenticationCache authenticationCache;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http.csrf().disable()
+                .authorizeExchange()
+                .pathMatchers("/actuator/**").hasRole("ADMIN")
+                .pathMatchers("/animes/admin/**").hasRole("ADMIN")
+                .pathMatchers("/animes/**").hasRole("USER")
+                .anyExchange()
+                .authenticated()
+                .and()
+                .formLogin()
+                .and()
+                .httpBasic()
+                .and()
+                .build();
+    }
+
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager() {
+        // same providers as the servlet stack, the adapter runs the blocking lookups on a bounded elastic scheduler
+        return new ReactiveAuthenticationManagerAdapter(new ProviderManager(
+                SecurityConfig.authenticationProvider(devDojoUserDetailsService, authenticationCache)));
+    }
+}
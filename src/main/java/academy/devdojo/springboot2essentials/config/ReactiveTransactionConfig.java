@@ -0,0 +1,20 @@
+package academy.devdojo.springboot2essentials.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.connectionfactory.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveTransactionConfig {
+
+    // the R2DBC transaction manager is no bean of its own, @Transactional on the JPA service would otherwise find two
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,77 @@
+package academy.devdojo.springboot2essentials.config;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import academy.devdojo.springboot2essentials.datasource.ReadYourWritesTracker;
+import academy.devdojo.springboot2essentials.datasource.ReplicaRoutingDataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "devdojo.replica.datasource", name = "jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primaryDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primaryDataSource.setPoolName("primary");
+        return primaryDataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("devdojo.replica.datasource")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replicaDataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .build();
+        replicaDataSource.setPoolName("replica");
+        replicaDataSource.setReadOnly(true);
+        return replicaDataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(DevDojoProperties devDojoProperties) {
+        return new ReadYourWritesTracker(devDojoProperties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReadYourWritesTracker readYourWritesTracker, ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        // the route depends on the transaction's read-only flag, which is only set after the transaction manager
+        // asked for a connection, so the real connection must not be fetched before the first statement
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, readYourWritesTracker,
+                        () -> skipSecondLevelCachePuts(entityManagerFactory.getObject())));
+    }
+
+    private static void skipSecondLevelCachePuts(EntityManagerFactory entityManagerFactory) {
+        // a lagging replica may still return the previous version of an entity, which must not end up in the
+        // second-level cache where the primary reads would find it too
+        Object resource = TransactionSynchronizationManager.getResource(entityManagerFactory);
+        if (resource instanceof EntityManagerHolder) {
+            ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package academy.devdojo.springboot2essentials.config;
+
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import academy.devdojo.springboot2essentials.cache.SecondLevelCacheRegions;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public CacheManager hibernateCacheManager(DevDojoProperties devDojoProperties) {
+        // a provider of its own, so the caches are never shared with another application context in the same JVM
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        DevDojoProperties.SecondLevelCache properties = devDojoProperties.getSecondLevelCache();
+        SecondLevelCacheRegions.ENTITIES.forEach(region ->
+                cacheManager.createCache(region, boundedRegion(properties.getEntities())));
+        SecondLevelCacheRegions.QUERIES.forEach(region ->
+                cacheManager.createCache(region, boundedRegion(properties.getQueries())));
+        // one entry per table; evicting it early would let the query regions serve results older than the last write
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> boundedRegion(DevDojoProperties.Cache properties) {
+        CaffeineConfiguration<Object, Object> configuration = region();
+        configuration.setMaximumSize(OptionalLong.of(properties.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(properties.getTtl().toNanos()));
+        return configuration;
+    }
+
+    private static CaffeineConfiguration<Object, Object> region() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // hibernate already stores a disassembled copy of the state, copying it again on every access buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -1,23 +1,37 @@
 package academy.devdojo.springboot2essentials.config;
 
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 
+import academy.devdojo.springboot2essentials.cache.AuthenticationCache;
+import academy.devdojo.springboot2essentials.security.CachingAuthenticationProvider;
 import academy.devdojo.springboot2essentials.service.DevDojoUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
 @EnableWebSecurity
+@Profile("!reactive")
 @Log4j2
 @EnableGlobalMethodSecurity(prePostEnabled = true)
 @RequiredArgsConstructor
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
     private final DevDojoUserDetailsService devDojoUserDetailsService;
+    private final AuthenticationCache authenticationCache;
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
@@ -25,6 +39,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 // csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse())
                 // .and()
                 .authorizeRequests()
+                .antMatchers("/actuator/**").hasRole("ADMIN")
                 .antMatchers("/animes/admin/**").hasRole("ADMIN")
                 .antMatchers("/animes/**").hasRole("USER")
                 .anyRequest()
@@ -37,18 +52,36 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
+        auth.authenticationProvider(authenticationProvider(devDojoUserDetailsService, authenticationCache));
+    }
+
+    static AuthenticationProvider authenticationProvider(DevDojoUserDetailsService devDojoUserDetailsService,
+            AuthenticationCache authenticationCache) {
         PasswordEncoder passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
         log.info("Password encoded {}", passwordEncoder.encode("academy"));
-        auth.inMemoryAuthentication()
-                .withUser("igor2")
-                .password(passwordEncoder.encode("academy"))
-                .roles("USER", "ADMIN")
-                .and()
-                .withUser("devdojo2")
-                .password(passwordEncoder.encode("academy"))
-                .roles("USER");
-        auth.userDetailsService(devDojoUserDetailsService)
-                .passwordEncoder(passwordEncoder);
+        InMemoryUserDetailsManager inMemoryUserDetailsManager = new InMemoryUserDetailsManager(
+                User.withUsername("igor2")
+                        .password(passwordEncoder.encode("academy"))
+                        .roles("USER", "ADMIN")
+                        .build(),
+                User.withUsername("devdojo2")
+                        .password(passwordEncoder.encode("academy"))
+                        .roles("USER")
+                        .build());
+
+        AuthenticationManager authenticationManager = new ProviderManager(List.of(
+                daoAuthenticationProvider(inMemoryUserDetailsManager, passwordEncoder),
+                daoAuthenticationProvider(devDojoUserDetailsService, passwordEncoder)));
+
+        return new CachingAuthenticationProvider(authenticationManager, authenticationCache);
+    }
+
+    private static DaoAuthenticationProvider daoAuthenticationProvider(UserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
+        daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        return daoAuthenticationProvider;
     }
 
 }
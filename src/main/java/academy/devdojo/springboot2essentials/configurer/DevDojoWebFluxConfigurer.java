@@ -0,0 +1,48 @@
+package academy.devdojo.springboot2essentials.configurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@Profile("reactive")
+@RequiredArgsConstructor
+public class DevDojoWebFluxConfigurer implements WebFluxConfigurer {
+    private final Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder;
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        // spring-boot-starter-web puts Tomcat on the classpath and Boot would otherwise pick it for WebFlux too
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        // Smile is among the default codecs, CBOR is not
+        ObjectMapper cborObjectMapper = jackson2ObjectMapperBuilder.factory(new CBORFactory()).build();
+        configurer.customCodecs().register(new Jackson2CborEncoder(cborObjectMapper));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborObjectMapper));
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        ReactivePageableHandlerMethodArgumentResolver pageHandler = new ReactivePageableHandlerMethodArgumentResolver();
+        pageHandler.setFallbackPageable(PageRequest.of(0, 5));
+        configurer.addCustomResolver(pageHandler);
+    }
+
+}
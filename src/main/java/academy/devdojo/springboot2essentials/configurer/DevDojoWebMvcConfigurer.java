@@ -2,14 +2,44 @@ package academy.devdojo.springboot2essentials.configurer;
 
 import java.util.List;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import academy.devdojo.springboot2essentials.handler.AnimeConditionalRequestInterceptor;
+import lombok.RequiredArgsConstructor;
+
 @Configuration
+@Profile("!reactive")
+@RequiredArgsConstructor
 public class DevDojoWebMvcConfigurer implements WebMvcConfigurer {
+    private final AnimeConditionalRequestInterceptor animeConditionalRequestInterceptor;
+
+    // built from Boot's builder so the binary formats follow the same spring.jackson settings as JSON
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(
+                jackson2ObjectMapperBuilder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(
+                jackson2ObjectMapperBuilder.factory(new SmileFactory()).build());
+    }
 
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
@@ -18,4 +48,12 @@ public class DevDojoWebMvcConfigurer implements WebMvcConfigurer {
         resolvers.add(pageHandler);
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // a single anime carries its own version as a strong ETag, the table-wide one must not replace it
+        registry.addInterceptor(animeConditionalRequestInterceptor)
+                .addPathPatterns("/animes/**")
+                .excludePathPatterns("/animes/admin/**", "/animes/{id:\\d+}", "/animes/by-id/*");
+    }
+
 }
@@ -1,13 +1,30 @@
 package academy.devdojo.springboot2essentials.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 import javax.validation.Valid;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,68 +34,248 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.exception.BadRequestException;
+import academy.devdojo.springboot2essentials.metrics.SqlStatementBudget;
 import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
 import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+import academy.devdojo.springboot2essentials.request.CountMode;
 import academy.devdojo.springboot2essentials.service.AnimeService;
 import academy.devdojo.springboot2essentials.util.DateUtil;
+import academy.devdojo.springboot2essentials.util.Principals;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSuggestion;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
+import academy.devdojo.springboot2essentials.wrapper.BatchItemResult;
+import academy.devdojo.springboot2essentials.wrapper.BulkOperationResponse;
+import academy.devdojo.springboot2essentials.wrapper.CacheRegionStatistics;
+import academy.devdojo.springboot2essentials.wrapper.CacheStatistics;
+import academy.devdojo.springboot2essentials.wrapper.KeysetResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("animes")
 @RequiredArgsConstructor
 @Log4j2
 public class AnimeController {
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     private final DateUtil dateUtil;
     private final AnimeService animeService;
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter;
+    private final MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter;
 
     @GetMapping
+    // the listings read the anime revision for their ETag before the controller runs
+    @SqlStatementBudget(3)
     public ResponseEntity<Page<Anime>> list(Pageable pageable) {
         return ResponseEntity.ok(animeService.listAll(pageable));
     }
 
+    @GetMapping(path = "/summaries")
+    @SqlStatementBudget(3)
+    public ResponseEntity<Page<AnimeSummary>> listSummaries(Pageable pageable) {
+        return ResponseEntity.ok(animeService.listSummaries(pageable));
+    }
+
+    @GetMapping(path = "/summaries/all")
+    public ResponseEntity<List<AnimeSummary>> listAllSummaries() {
+        return ResponseEntity.ok(animeService.listAllSummariesNonPageable());
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<AnimeLookupResponse> findAllById(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(animeService.findAllById(ids));
+    }
+
+    @GetMapping(params = "count")
+    public ResponseEntity<Slice<Anime>> listWithCount(Pageable pageable, @RequestParam String count) {
+        return ResponseEntity.ok(animeService.listAll(pageable, CountMode.of(count)));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<KeysetResponse<Anime>> listAfter(@RequestParam String after,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "id") String sort) {
+        return ResponseEntity.ok(animeService.listAfter(after, size, sort));
+    }
+
     @GetMapping(path = "/all")
-    public ResponseEntity<List<Anime>> listAll() {
-        return ResponseEntity.ok(animeService.listAllNonPageable());
+    public ResponseEntity<StreamingResponseBody> listAll() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> writeAll(outputStream, objectMapper, true));
+    }
+
+    @GetMapping(path = "/all", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listAllAsNdjson() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(outputStream -> writeAll(outputStream, objectMapper, false));
+    }
+
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<StreamingResponseBody> listAllAsCbor() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_CBOR)
+                .body(outputStream -> writeAll(outputStream,
+                        mappingJackson2CborHttpMessageConverter.getObjectMapper(), true));
+    }
+
+    @GetMapping(path = "/all", produces = APPLICATION_SMILE_VALUE)
+    public ResponseEntity<StreamingResponseBody> listAllAsSmile() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_SMILE_VALUE))
+                .body(outputStream -> writeAll(outputStream,
+                        mappingJackson2SmileHttpMessageConverter.getObjectMapper(), true));
     }
 
     @GetMapping(path = "/{id}")
+    @SqlStatementBudget(1)
     public ResponseEntity<Anime> findById(@PathVariable long id) {
-        return ResponseEntity.ok(animeService.findByIdOrThrowBadRequestException(id));
+        return withEntityTag(animeService.findByIdOrThrowBadRequestException(id));
     }
 
     @GetMapping(path = "by-id/{id}")
+    @SqlStatementBudget(1)
     public ResponseEntity<Anime> findByIdAuthenticationPrincipal(@PathVariable long id,
             @AuthenticationPrincipal UserDetails userDetails) {
-        log.info(userDetails);
-        return ResponseEntity.ok(animeService.findByIdOrThrowBadRequestException(id));
+        log.debug("findById {} for principal {}", id, Principals.id(userDetails));
+        return withEntityTag(animeService.findByIdOrThrowBadRequestException(id));
     }
 
     @GetMapping(path = "/find")
+    @SqlStatementBudget(2)
     public ResponseEntity<List<Anime>> findByName(@RequestParam String name) {
         return ResponseEntity.ok(animeService.findByName(name));
     }
 
+    @GetMapping(path = "/suggest")
+    public ResponseEntity<List<AnimeSuggestion>> suggest(@RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(animeService.suggest(q, limit));
+    }
+
+    @GetMapping(path = "/find", params = "prefix")
+    @SqlStatementBudget(3)
+    public ResponseEntity<Page<Anime>> findByPrefix(@RequestParam String prefix, Pageable pageable) {
+        return ResponseEntity.ok(animeService.findByPrefix(prefix, pageable));
+    }
+
+    @GetMapping(path = "/admin/cache")
+    public ResponseEntity<CacheStatistics> cacheStatistics() {
+        return ResponseEntity.ok(animeService.cacheStatistics());
+    }
+
+    @GetMapping(path = "/admin/cache/regions")
+    public ResponseEntity<List<CacheRegionStatistics>> cacheRegionStatistics() {
+        return ResponseEntity.ok(animeService.cacheRegionStatistics());
+    }
+
     @PostMapping
+    // the insert, the anime revision bump every write makes, and the anime_seq call that claims the next block of
+    // ids on every 50th save; on MySQL the sequence table is read over a connection of its own that the statement
+    // counter never sees, only a database with real sequences like the H2 tests counts all three
+    @SqlStatementBudget(3)
     public ResponseEntity<Anime> save(@RequestBody @Valid AnimePostRequestBody anime) {
         return new ResponseEntity<>(animeService.save(anime), HttpStatus.CREATED);
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> saveAll(@RequestBody List<AnimePostRequestBody> animes) {
+        return ResponseEntity.ok(animeService.saveAll(animes.iterator()));
+    }
+
+    @PostMapping(path = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> saveAllFromNdjson(InputStream inputStream) throws IOException {
+        try (MappingIterator<AnimePostRequestBody> animes = objectMapper.readerFor(AnimePostRequestBody.class)
+                .readValues(inputStream)) {
+            return ResponseEntity.ok(animeService.saveAll(animes));
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Invalid NDJSON entry: " + e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            if (e instanceof RuntimeJsonMappingException || e.getCause() instanceof JsonProcessingException) {
+                throw new BadRequestException("Invalid NDJSON entry: " + e.getMessage());
+            }
+            throw e;
+        }
+    }
+
     @DeleteMapping(path = "/admin/{id}")
+    @SqlStatementBudget(3)
     public ResponseEntity<Void> delete(@PathVariable long id) {
         animeService.delete(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @DeleteMapping(path = "/admin/batch")
+    public ResponseEntity<BulkOperationResponse> deleteAll(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(animeService.deleteAll(ids));
+    }
+
     @PutMapping
-    public ResponseEntity<Void> replace(@RequestBody AnimePutRequestBody animePutRequestBody) {
-        animeService.replace(animePutRequestBody);
+    @SqlStatementBudget(3)
+    public ResponseEntity<Void> replace(@RequestBody AnimePutRequestBody animePutRequestBody,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        animeService.replace(animePutRequestBody, ifMatch);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @PutMapping(path = "/batch")
+    public ResponseEntity<BulkOperationResponse> replaceAll(@RequestBody List<AnimePutRequestBody> animes) {
+        return ResponseEntity.ok(animeService.replaceAll(animes));
+    }
+
+    // strong, since it is what If-Match on PUT /animes expects, a single anime stays below
+    // server.compression.min-response-size so Tomcat never has to compress it
+    private static ResponseEntity<Anime> withEntityTag(Anime anime) {
+        return ResponseEntity.ok()
+                .eTag(AnimeService.entityTag(anime))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(anime);
+    }
+
+    private void writeAll(OutputStream outputStream, ObjectMapper mapper, boolean asArray) throws IOException {
+        // a failed stream must stay truncated, closing would otherwise complete the array and hide the failure
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+            if (asArray) {
+                generator.writeStartArray();
+            } else {
+                // only the textual generator has root value separators, the binary ones reject the call
+                generator.setRootValueSeparator(null);
+            }
+            try {
+                // streamAll closes the repository stream itself, also when writing a row fails
+                animeService.streamAll(anime -> {
+                    try {
+                        generator.writeObject(anime);
+                        if (!asArray) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (asArray) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
 }
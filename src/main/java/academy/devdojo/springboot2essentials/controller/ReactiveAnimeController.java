@@ -0,0 +1,174 @@
+package academy.devdojo.springboot2essentials.controller;
+
+import java.util.List;
+
+import javax.validation.Valid;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+import academy.devdojo.springboot2essentials.request.CountMode;
+import academy.devdojo.springboot2essentials.service.AnimeService;
+import academy.devdojo.springboot2essentials.service.ReactiveAnimeService;
+import academy.devdojo.springboot2essentials.util.Principals;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSuggestion;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
+import academy.devdojo.springboot2essentials.wrapper.BatchItemResult;
+import academy.devdojo.springboot2essentials.wrapper.BulkOperationResponse;
+import academy.devdojo.springboot2essentials.wrapper.CacheRegionStatistics;
+import academy.devdojo.springboot2essentials.wrapper.CacheStatistics;
+import academy.devdojo.springboot2essentials.wrapper.KeysetResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("animes")
+@Profile("reactive")
+@RequiredArgsConstructor
+@Log4j2
+public class ReactiveAnimeController {
+    private final ReactiveAnimeService reactiveAnimeService;
+    private final AnimeService animeService;
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<Anime>>> list(Pageable pageable) {
+        return reactiveAnimeService.listAll(pageable).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(path = "/summaries")
+    public Mono<ResponseEntity<Page<AnimeSummary>>> listSummaries(Pageable pageable) {
+        return reactiveAnimeService.listSummaries(pageable).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(path = "/summaries/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<AnimeSummary> listAllSummaries() {
+        return reactiveAnimeService.streamAllSummaries();
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<AnimeLookupResponse>> findAllById(@RequestParam List<Long> ids) {
+        return reactiveAnimeService.findAllById(ids).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "count")
+    public Mono<ResponseEntity<Slice<Anime>>> listWithCount(Pageable pageable, @RequestParam String count) {
+        return reactiveAnimeService.listAll(pageable, CountMode.of(count)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "after")
+    public Mono<ResponseEntity<KeysetResponse<Anime>>> listAfter(@RequestParam String after,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "id") String sort) {
+        return reactiveAnimeService.listAfter(after, size, sort).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<Anime> listAll() {
+        return reactiveAnimeService.streamAll();
+    }
+
+    @GetMapping(path = "/{id}")
+    public Mono<ResponseEntity<Anime>> findById(@PathVariable long id) {
+        return reactiveAnimeService.findByIdOrThrowBadRequestException(id).map(ReactiveAnimeController::withEntityTag);
+    }
+
+    @GetMapping(path = "by-id/{id}")
+    public Mono<ResponseEntity<Anime>> findByIdAuthenticationPrincipal(@PathVariable long id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        log.debug("findById {} for principal {}", id, Principals.id(userDetails));
+        return reactiveAnimeService.findByIdOrThrowBadRequestException(id).map(ReactiveAnimeController::withEntityTag);
+    }
+
+    @GetMapping(path = "/find")
+    public Mono<ResponseEntity<List<Anime>>> findByName(@RequestParam String name) {
+        return reactiveAnimeService.findByName(name).collectList().map(ResponseEntity::ok);
+    }
+
+    @GetMapping(path = "/suggest")
+    public ResponseEntity<List<AnimeSuggestion>> suggest(@RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(animeService.suggest(q, limit));
+    }
+
+    @GetMapping(path = "/find", params = "prefix")
+    public Mono<ResponseEntity<Page<Anime>>> findByPrefix(@RequestParam String prefix, Pageable pageable) {
+        return reactiveAnimeService.findByPrefix(prefix, pageable).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(path = "/admin/cache")
+    public ResponseEntity<CacheStatistics> cacheStatistics() {
+        return ResponseEntity.ok(animeService.cacheStatistics());
+    }
+
+    @GetMapping(path = "/admin/cache/regions")
+    public ResponseEntity<List<CacheRegionStatistics>> cacheRegionStatistics() {
+        return ResponseEntity.ok(animeService.cacheRegionStatistics());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Anime>> save(@RequestBody @Valid AnimePostRequestBody anime) {
+        return reactiveAnimeService.save(anime)
+                .map(savedAnime -> new ResponseEntity<>(savedAnime, HttpStatus.CREATED));
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<BatchItemResult>>> saveAll(@RequestBody List<AnimePostRequestBody> animes) {
+        return reactiveAnimeService.saveAll(animes.iterator()).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping(path = "/admin/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable long id) {
+        return reactiveAnimeService.delete(id).thenReturn(new ResponseEntity<Void>(HttpStatus.NO_CONTENT));
+    }
+
+    @DeleteMapping(path = "/admin/batch")
+    public Mono<ResponseEntity<BulkOperationResponse>> deleteAll(@RequestBody List<Long> ids) {
+        return reactiveAnimeService.deleteAll(ids).map(ResponseEntity::ok);
+    }
+
+    @PutMapping
+    public Mono<ResponseEntity<Void>> replace(@RequestBody AnimePutRequestBody animePutRequestBody,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return reactiveAnimeService.replace(animePutRequestBody, ifMatch)
+                .thenReturn(new ResponseEntity<Void>(HttpStatus.NO_CONTENT));
+    }
+
+    @PutMapping(path = "/batch")
+    public Mono<ResponseEntity<BulkOperationResponse>> replaceAll(@RequestBody List<AnimePutRequestBody> animes) {
+        return reactiveAnimeService.replaceAll(animes).map(ResponseEntity::ok);
+    }
+
+    // strong, since it is what If-Match on PUT /animes expects
+    private static ResponseEntity<Anime> withEntityTag(Anime anime) {
+        return ResponseEntity.ok()
+                .eTag(AnimeService.entityTag(anime))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(anime);
+    }
+}
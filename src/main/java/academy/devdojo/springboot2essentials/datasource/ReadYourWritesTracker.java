@@ -0,0 +1,46 @@
+package academy.devdojo.springboot2essentials.datasource;
+
+import java.time.Duration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+
+public class ReadYourWritesTracker {
+    private final Cache<String, Boolean> recentWriters;
+    private final Duration window;
+
+    public ReadYourWritesTracker(DevDojoProperties devDojoProperties) {
+        DevDojoProperties.Replica properties = devDojoProperties.getReplica();
+        this.window = properties.getReadYourWritesWindow();
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumTrackedClients())
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .build();
+    }
+
+    public void recordWrite() {
+        String client = currentClient();
+        if (client != null) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+    }
+
+    public boolean wroteRecently() {
+        String client = currentClient();
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,45 @@
+package academy.devdojo.springboot2essentials.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import academy.devdojo.springboot2essentials.util.TransactionCallbacks;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Runnable onReplicaRead;
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+            ReadYourWritesTracker readYourWritesTracker, Runnable onReplicaRead) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.onReplicaRead = onReplicaRead;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // the window starts once the write is visible on the primary
+            TransactionCallbacks.afterCommit(readYourWritesTracker::recordWrite);
+            return Route.PRIMARY;
+        }
+        if (PrimaryReads.isActive() || readYourWritesTracker.wroteRecently()) {
+            return Route.PRIMARY;
+        }
+        onReplicaRead.run();
+        return Route.REPLICA;
+    }
+}
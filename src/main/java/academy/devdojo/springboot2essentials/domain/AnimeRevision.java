@@ -0,0 +1,31 @@
+package academy.devdojo.springboot2essentials.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// a single row every anime write bumps in its own transaction, the listings derive their validators from it
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Builder
+public class AnimeRevision {
+    public static final long ID = 1;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long revision;
+
+    // epoch millis truncated to the second, like the Last-Modified header it becomes
+    @Column(nullable = false)
+    private long modifiedAt;
+
+}
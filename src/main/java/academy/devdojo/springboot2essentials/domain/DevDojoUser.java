@@ -1,28 +1,36 @@
 package academy.devdojo.springboot2essentials.domain;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.validation.constraints.NotEmpty;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import academy.devdojo.springboot2essentials.cache.SecondLevelCacheRegions;
+import academy.devdojo.springboot2essentials.security.DevDojoUserCacheEvictionListener;
+import academy.devdojo.springboot2essentials.util.GrantedAuthorities;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheRegions.DEV_DOJO_USER)
+@EntityListeners(DevDojoUserCacheEvictionListener.class)
 @Builder
 public class DevDojoUser implements UserDetails {
     @Id
@@ -32,14 +40,13 @@ public class DevDojoUser implements UserDetails {
     @NotEmpty(message = "The name cannot be empty")
     private String name;
     private String username;
+    @ToString.Exclude
     private String password;
     private String authorities;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Arrays.stream(authorities.split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        return GrantedAuthorities.parse(authorities);
     }
 
     @Override
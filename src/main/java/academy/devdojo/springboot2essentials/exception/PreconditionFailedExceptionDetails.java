@@ -0,0 +1,10 @@
+package academy.devdojo.springboot2essentials.exception;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@SuperBuilder
+public class PreconditionFailedExceptionDetails extends ExceptionDetails {
+
+}
@@ -0,0 +1,41 @@
+package academy.devdojo.springboot2essentials.handler;
+
+import java.util.Optional;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import academy.devdojo.springboot2essentials.cache.AnimeChangeCounter;
+import academy.devdojo.springboot2essentials.domain.AnimeRevision;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class AnimeConditionalRequestInterceptor implements HandlerInterceptor {
+    private final AnimeChangeCounter animeChangeCounter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        // without the revision row nothing tells a stale listing from a current one, so nothing is answered with 304
+        Optional<AnimeRevision> animeRevision = animeChangeCounter.current();
+        if (animeRevision.isEmpty()) {
+            return true;
+        }
+        String etag = AnimeChangeCounter.etag(animeRevision.get(), request.getHeader(HttpHeaders.ACCEPT));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return !new ServletWebRequest(request, response).checkNotModified(etag, animeRevision.get().getModifiedAt());
+    }
+}
@@ -0,0 +1,56 @@
+package academy.devdojo.springboot2essentials.handler;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import academy.devdojo.springboot2essentials.cache.AnimeChangeCounter;
+import academy.devdojo.springboot2essentials.repository.ReactiveAnimeRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class AnimeConditionalRequestWebFilter implements WebFilter {
+    private static final PathPattern ANIMES = new PathPatternParser().parse("/animes/**");
+    private static final PathPattern ADMIN = new PathPatternParser().parse("/animes/admin/**");
+    // a single anime carries its own version as a strong ETag, the table-wide one must not replace it
+    private static final PathPattern BY_ID = new PathPatternParser().parse("/animes/{id:\\d+}");
+    private static final PathPattern BY_ID_WITH_PRINCIPAL = new PathPatternParser().parse("/animes/by-id/*");
+
+    private final ReactiveAnimeRepository reactiveAnimeRepository;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        HttpMethod method = exchange.getRequest().getMethod();
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        if (method != HttpMethod.GET && method != HttpMethod.HEAD || !ANIMES.matches(path) || ADMIN.matches(path)
+                || BY_ID.matches(path) || BY_ID_WITH_PRINCIPAL.matches(path)) {
+            return chain.filter(exchange);
+        }
+        // without the revision row nothing tells a stale listing from a current one, so nothing is answered with 304
+        return reactiveAnimeRepository.findRevision()
+                .map(animeRevision -> {
+                    String etag = AnimeChangeCounter.etag(animeRevision,
+                            exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT));
+                    HttpHeaders headers = exchange.getResponse().getHeaders();
+                    headers.setCacheControl(CacheControl.noCache().cachePrivate());
+                    headers.setVary(List.of(HttpHeaders.ACCEPT));
+                    return exchange.checkNotModified(etag, Instant.ofEpochMilli(animeRevision.getModifiedAt()));
+                })
+                .defaultIfEmpty(false)
+                .flatMap(notModified -> notModified ? exchange.getResponse().setComplete() : chain.filter(exchange));
+    }
+}
@@ -0,0 +1,33 @@
+package academy.devdojo.springboot2essentials.handler;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import academy.devdojo.springboot2essentials.exception.BadRequestException;
+import academy.devdojo.springboot2essentials.exception.BadRequestExceptionDetails;
+import academy.devdojo.springboot2essentials.exception.PreconditionFailedException;
+import academy.devdojo.springboot2essentials.exception.PreconditionFailedExceptionDetails;
+
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<BadRequestExceptionDetails> handleBadRequestException(BadRequestException bre) {
+        return RestExceptionHandler.badRequest(bre);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<PreconditionFailedExceptionDetails> handlePreconditionFailedException(
+            PreconditionFailedException pfe) {
+        return RestExceptionHandler.preconditionFailed(pfe);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleWebExchangeBindException(WebExchangeBindException exception) {
+        return RestExceptionHandler.invalidFields(exception, exception.getBindingResult());
+    }
+}
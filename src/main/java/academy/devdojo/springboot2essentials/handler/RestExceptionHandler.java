@@ -4,10 +4,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -18,13 +20,47 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import academy.devdojo.springboot2essentials.exception.BadRequestException;
 import academy.devdojo.springboot2essentials.exception.BadRequestExceptionDetails;
 import academy.devdojo.springboot2essentials.exception.ExceptionDetails;
+import academy.devdojo.springboot2essentials.exception.PreconditionFailedException;
+import academy.devdojo.springboot2essentials.exception.PreconditionFailedExceptionDetails;
 import academy.devdojo.springboot2essentials.exception.ValidationExceptionDetails;
 
 @ControllerAdvice
+@Profile("!reactive")
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<BadRequestExceptionDetails> handleBadRequestException(BadRequestException bre) {
+        return badRequest(bre);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<PreconditionFailedExceptionDetails> handlePreconditionFailedException(
+            PreconditionFailedException pfe) {
+        return preconditionFailed(pfe);
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleMethodArgumentNotValid(
+            MethodArgumentNotValidException exception, HttpHeaders headers, HttpStatus status, WebRequest request) {
+        return invalidFields(exception, exception.getBindingResult());
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(
+            Exception ex, @Nullable Object body, HttpHeaders headers, HttpStatus status, WebRequest request) {
+
+        ExceptionDetails exceptionDetails = ExceptionDetails.builder()
+                .timeStamp(LocalDateTime.now())
+                .status(status.value())
+                .title(ex.getCause().getMessage())
+                .details(ex.getMessage())
+                .developerMessage(ex.getClass().getName())
+                .build();
+
+        return new ResponseEntity<>(exceptionDetails, headers, status);
+    }
+
+    static ResponseEntity<BadRequestExceptionDetails> badRequest(BadRequestException bre) {
         return new ResponseEntity<>(
                 BadRequestExceptionDetails.builder()
                         .timeStamp(LocalDateTime.now())
@@ -36,10 +72,20 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
                 HttpStatus.BAD_REQUEST);
     }
 
-    @Override
-    protected ResponseEntity<Object> handleMethodArgumentNotValid(
-            MethodArgumentNotValidException exception, HttpHeaders headers, HttpStatus status, WebRequest request) {
-        List<FieldError> fieldErrors = exception.getBindingResult().getFieldErrors();
+    static ResponseEntity<PreconditionFailedExceptionDetails> preconditionFailed(PreconditionFailedException pfe) {
+        return new ResponseEntity<>(
+                PreconditionFailedExceptionDetails.builder()
+                        .timeStamp(LocalDateTime.now())
+                        .status(HttpStatus.PRECONDITION_FAILED.value())
+                        .title("Precondition Failed Exception. Reload the anime and try again")
+                        .details(pfe.getMessage())
+                        .developerMessage(pfe.getClass().getName())
+                        .build(),
+                HttpStatus.PRECONDITION_FAILED);
+    }
+
+    static ResponseEntity<Object> invalidFields(Exception exception, BindingResult bindingResult) {
+        List<FieldError> fieldErrors = bindingResult.getFieldErrors();
 
         String fields = fieldErrors.stream().map(FieldError::getField).collect(Collectors.joining(", "));
         String fieldsMessage = fieldErrors.stream().map(FieldError::getDefaultMessage)
@@ -57,19 +103,4 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
                         .build(),
                 HttpStatus.BAD_REQUEST);
     }
-
-    @Override
-    protected ResponseEntity<Object> handleExceptionInternal(
-            Exception ex, @Nullable Object body, HttpHeaders headers, HttpStatus status, WebRequest request) {
-
-        ExceptionDetails exceptionDetails = ExceptionDetails.builder()
-                .timeStamp(LocalDateTime.now())
-                .status(status.value())
-                .title(ex.getCause().getMessage())
-                .details(ex.getMessage())
-                .developerMessage(ex.getClass().getName())
-                .build();
-
-        return new ResponseEntity<>(exceptionDetails, headers, status);
-    }
 }
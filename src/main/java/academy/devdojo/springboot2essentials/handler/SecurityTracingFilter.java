@@ -0,0 +1,33 @@
+package academy.devdojo.springboot2essentials.handler;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import academy.devdojo.springboot2essentials.tracing.SpanScope;
+
+@Component
+@Profile("!reactive")
+// the first filter after spring security, the request got through authentication and authorization
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class SecurityTracingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Object securitySpan = request.getAttribute(TracingFilter.SECURITY_SPAN_ATTRIBUTE);
+        if (securitySpan != null) {
+            ((SpanScope) securitySpan).close();
+        }
+        filterChain.doFilter(request, response);
+    }
+}
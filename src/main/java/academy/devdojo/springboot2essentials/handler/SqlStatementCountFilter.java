@@ -0,0 +1,73 @@
+package academy.devdojo.springboot2essentials.handler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import academy.devdojo.springboot2essentials.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@Profile("!reactive")
+// ahead of spring security, so the user lookups of the authentication are counted as well
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+    static final String SQL_STATEMENTS_SUMMARY = "devdojo.sql.statements";
+    static final String JDBC_TIMER = "devdojo.sql.jdbc";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+    // the uri is the matched pattern, so there is one pair of meters per endpoint and not one per request path
+    private final Map<String, Map<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    // statements run by a StreamingResponseBody happen on another thread after this returns and are not counted
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlStatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+            String method = request.getMethod();
+            summaries.computeIfAbsent(method, ignored -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(uri, ignored -> DistributionSummary.builder(SQL_STATEMENTS_SUMMARY)
+                            .baseUnit("statements")
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .publishPercentileHistogram()
+                            .maximumExpectedValue(1_000L)
+                            .register(meterRegistry))
+                    .record(sqlStatementCounter.count());
+            timers.computeIfAbsent(method, ignored -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(uri, ignored -> Timer.builder(JDBC_TIMER)
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .publishPercentileHistogram()
+                            .maximumExpectedValue(Duration.ofSeconds(10))
+                            .register(meterRegistry))
+                    .record(sqlStatementCounter.jdbcNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
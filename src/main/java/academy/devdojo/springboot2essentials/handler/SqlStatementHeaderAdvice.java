@@ -0,0 +1,52 @@
+package academy.devdojo.springboot2essentials.handler;
+
+import java.util.Locale;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import academy.devdojo.springboot2essentials.metrics.SqlStatementBudget;
+import academy.devdojo.springboot2essentials.metrics.SqlStatementCounter;
+import lombok.RequiredArgsConstructor;
+
+// headers have to be set before the body is written, a filter only gets to see the response once it is committed
+@ControllerAdvice
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "devdojo.sql-statements", name = "headers", havingValue = "true")
+@RequiredArgsConstructor
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String SQL_STATEMENTS = "X-SQL-Statements";
+    public static final String SQL_STATEMENT_BUDGET = "X-SQL-Statement-Budget";
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final SqlStatementCounter sqlStatementCounter;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    // also called with a null body, so the 204 responses of replace and delete carry the headers too
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        headers.set(SQL_STATEMENTS, Integer.toString(sqlStatementCounter.count()));
+        headers.set(SERVER_TIMING, String.format(Locale.ROOT, "sql;dur=%.3f",
+                sqlStatementCounter.jdbcNanos() / 1_000_000.0));
+        SqlStatementBudget budget = returnType.getMethodAnnotation(SqlStatementBudget.class);
+        if (budget != null) {
+            headers.set(SQL_STATEMENT_BUDGET, Integer.toString(budget.value()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,66 @@
+package academy.devdojo.springboot2essentials.handler;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import academy.devdojo.springboot2essentials.tracing.SpanScope;
+import academy.devdojo.springboot2essentials.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+@Component
+@Profile("!reactive")
+// right in front of spring security, which gets a span of its own that SecurityTracingFilter closes
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@RequiredArgsConstructor
+@Log4j2
+public class TracingFilter extends OncePerRequestFilter {
+    static final String SECURITY_SPAN_ATTRIBUTE = TracingFilter.class.getName() + ".securitySpan";
+
+    private final Tracer tracer;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SpanScope requestSpan = tracer.beginTrace("http", request.getMethod() + " " + request.getRequestURI());
+        if (!requestSpan.isSampled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        SpanScope securitySpan = tracer.start("security", "FilterChainProxy");
+        request.setAttribute(SECURITY_SPAN_ATTRIBUTE, securitySpan);
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            requestSpan.markError();
+            throw e;
+        } finally {
+            // still open when spring security answered the request itself, e.g. with a 401
+            securitySpan.close();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                requestSpan.rename(request.getMethod() + " " + pattern);
+            }
+            if (response.getStatus() >= 500) {
+                requestSpan.markError();
+            }
+            log.debug("trace={} method={} uri={} status={} durationMicros={}", requestSpan.getTraceId(),
+                    request.getMethod(), pattern == null ? request.getRequestURI() : pattern, response.getStatus(),
+                    requestSpan.elapsedMicros());
+            requestSpan.close();
+            tracer.endTrace();
+        }
+    }
+}
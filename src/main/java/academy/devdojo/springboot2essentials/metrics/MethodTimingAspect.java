@@ -0,0 +1,66 @@
+package academy.devdojo.springboot2essentials.metrics;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+@Aspect
+@Component
+// outside the transaction advice, so begin and commit are part of the measured time
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class MethodTimingAspect {
+    static final String SERVICE_TIMER = "devdojo.service";
+    static final String REPOSITORY_TIMER = "devdojo.repository";
+    private static final Duration MAXIMUM_EXPECTED_DURATION = Duration.ofSeconds(10);
+
+    private final MeterRegistry meterRegistry;
+    // looking a timer up through its builder on every call costs more than the call being timed on a cache hit
+    private final Map<String, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * academy.devdojo.springboot2essentials.service.AnimeService.*(..))")
+    public Object timeAnimeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, "AnimeService", joinPoint);
+    }
+
+    @Around("execution(* *(..)) && this(academy.devdojo.springboot2essentials.repository.AnimeRepository)")
+    public Object timeAnimeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, "AnimeRepository", joinPoint);
+    }
+
+    @Around("execution(* *(..)) && this(academy.devdojo.springboot2essentials.repository.DevDojoUserRepository)")
+    public Object timeDevDojoUserRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, "DevDojoUserRepository", joinPoint);
+    }
+
+    private Object time(String name, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        // the repositories share inherited methods like findById, so the timers are kept apart per class
+        Timer timer = timers.computeIfAbsent(className, ignored -> new ConcurrentHashMap<>())
+                .computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), method -> Timer.builder(name)
+                        .tag("class", className)
+                        .tag("method", method.getName())
+                        .publishPercentileHistogram()
+                        .maximumExpectedValue(MAXIMUM_EXPECTED_DURATION)
+                        .register(meterRegistry));
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package academy.devdojo.springboot2essentials.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SqlStatementCounter implements StatementInspector {
+    // static because hibernate creates a JdbcTimingListener of its own for every session
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    // called once per prepared statement, a JDBC batch counts as one statement however many rows it carries
+    @Override
+    public String inspect(String sql) {
+        COUNTS.get().statements++;
+        return sql;
+    }
+
+    public void reset() {
+        Counts counts = COUNTS.get();
+        counts.statements = 0;
+        counts.jdbcNanos = 0;
+    }
+
+    public int count() {
+        return COUNTS.get().statements;
+    }
+
+    public long jdbcNanos() {
+        return COUNTS.get().jdbcNanos;
+    }
+
+    private static class Counts {
+        private int statements;
+        private long jdbcNanos;
+    }
+
+    // the time the driver spends executing, reading the rows of a result set afterwards is not included
+    public static class JdbcTimingListener extends BaseSessionEventListener {
+        private long start;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            COUNTS.get().jdbcNanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            COUNTS.get().jdbcNanos += System.nanoTime() - start;
+        }
+    }
+}
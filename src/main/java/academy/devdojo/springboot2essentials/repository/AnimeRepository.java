@@ -1,13 +1,72 @@
 package academy.devdojo.springboot2essentials.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import academy.devdojo.springboot2essentials.cache.SecondLevelCacheRegions;
 import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
 
-public interface AnimeRepository extends JpaRepository<Anime, Long> {
+public interface AnimeRepository extends JpaRepository<Anime, Long>, AnimeRepositoryCustom {
 
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = SecondLevelCacheRegions.ANIME_QUERIES)
+    })
     List<Anime> findByName(String name);
 
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = SecondLevelCacheRegions.ANIME_QUERIES)
+    })
+    Page<Anime> findByNameStartingWith(String prefix, Pageable pageable);
+
+    // constructor expressions return plain objects, nothing is hydrated into or snapshotted by the persistence context
+    @Query(value = "select new academy.devdojo.springboot2essentials.wrapper.AnimeSummary(a.id, a.name) from Anime a",
+            countQuery = "select count(a) from Anime a")
+    Page<AnimeSummary> findAllSummaries(Pageable pageable);
+
+    @Query("select new academy.devdojo.springboot2essentials.wrapper.AnimeSummary(a.id, a.name) from Anime a")
+    List<AnimeSummary> findAllSummaries();
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    Stream<Anime> streamAllByOrderByIdAsc();
+
+    Slice<Anime> findAllBy(Pageable pageable);
+
+    Slice<Anime> findAllByOrderByIdAsc(Pageable pageable);
+
+    Slice<Anime> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Slice<Anime> findAllByOrderByNameAscIdAsc(Pageable pageable);
+
+    @Query("select a from Anime a where a.name > :name or (a.name = :name and a.id > :id) order by a.name asc, a.id asc")
+    Slice<Anime> findAfterNameAndId(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("select a.id from Anime a where a.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select a.version from Anime a where a.id = :id")
+    Optional<Integer> findVersionById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Anime a where a.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
 }
@@ -0,0 +1,13 @@
+package academy.devdojo.springboot2essentials.repository;
+
+import java.util.Map;
+
+public interface AnimeRepositoryCustom {
+
+    int updateName(Long id, String name);
+
+    int updateNameIfVersion(Long id, String name, Integer version);
+
+    int updateNames(Map<Long, String> namesById);
+
+}
@@ -0,0 +1,87 @@
+package academy.devdojo.springboot2essentials.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
+
+import academy.devdojo.springboot2essentials.cache.SecondLevelCacheRegions;
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class AnimeRepositoryCustomImpl implements AnimeRepositoryCustom {
+    // no entity or cached query reads this space, so Hibernate neither empties the whole anime region nor
+    // invalidates the other regions after a rename, only the renamed animes are evicted
+    private static final String RENAME_QUERY_SPACE = "anime_rename";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int updateName(Long id, String name) {
+        Query update = entityManager.createNativeQuery(
+                "update anime set name = :name, version = version + 1 where id = :id")
+                .setParameter("id", id)
+                .setParameter("name", name);
+        return rename(update, List.of(id));
+    }
+
+    @Override
+    public int updateNameIfVersion(Long id, String name, Integer version) {
+        Query update = entityManager.createNativeQuery(
+                "update anime set name = :name, version = version + 1 where id = :id and version = :version")
+                .setParameter("id", id)
+                .setParameter("name", name)
+                .setParameter("version", version);
+        return rename(update, List.of(id));
+    }
+
+    @Override
+    public int updateNames(Map<Long, String> namesById) {
+        if (namesById.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("update anime set name = case id");
+        for (int i = 0; i < namesById.size(); i++) {
+            sql.append(" when :id").append(i).append(" then :name").append(i);
+        }
+        sql.append(" else name end, version = version + 1 where id in (:ids)");
+
+        Query update = entityManager.createNativeQuery(sql.toString())
+                .setParameter("ids", namesById.keySet());
+        int i = 0;
+        for (Map.Entry<Long, String> nameById : namesById.entrySet()) {
+            update.setParameter("id" + i, nameById.getKey())
+                    .setParameter("name" + i, nameById.getValue());
+            i++;
+        }
+        return rename(update, namesById.keySet());
+    }
+
+    private int rename(Query update, Collection<Long> ids) {
+        entityManager.flush();
+        int updated = update.unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(RENAME_QUERY_SPACE)
+                .executeUpdate();
+        entityManager.clear();
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        evict(cache, ids);
+        // a read between the eviction and the commit may cache the previous names again
+        TransactionCallbacks.afterCommit(() -> evict(cache, ids));
+        return updated;
+    }
+
+    private static void evict(Cache cache, Collection<Long> ids) {
+        ids.forEach(id -> cache.evictEntityData(Anime.class, id));
+        // the cached query results hold ids, a rename can move an anime in or out of any of them
+        cache.evictQueryRegion(SecondLevelCacheRegions.ANIME_QUERIES);
+    }
+
+}
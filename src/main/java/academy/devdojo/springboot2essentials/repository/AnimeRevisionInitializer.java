@@ -0,0 +1,38 @@
+package academy.devdojo.springboot2essentials.repository;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.domain.AnimeRevision;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class AnimeRevisionInitializer implements SmartInitializingSingleton {
+    private final JdbcTemplate jdbcTemplate;
+
+    // runs once the schema update created the table and before the web server accepts writes
+    @Override
+    public void afterSingletonsInstantiated() {
+        seed();
+    }
+
+    public void seed() {
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from anime_revision where id = ?", Integer.class,
+                AnimeRevision.ID);
+        if (rows != null && rows > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("insert into anime_revision (id, revision, modified_at) values (?, 0, ?)",
+                    AnimeRevision.ID, System.currentTimeMillis() / 1000 * 1000);
+            log.info("Created the anime revision row");
+        } catch (DuplicateKeyException e) {
+            // another instance starting against the same database created it first
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package academy.devdojo.springboot2essentials.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import academy.devdojo.springboot2essentials.domain.AnimeRevision;
+
+public interface AnimeRevisionRepository extends JpaRepository<AnimeRevision, Long> {
+
+    // instances with clocks behind the last writer keep the later time, Last-Modified never goes backwards
+    @Modifying
+    @Query("update AnimeRevision r set r.revision = r.revision + 1, "
+            + "r.modifiedAt = case when r.modifiedAt < :modifiedAt then :modifiedAt else r.modifiedAt end "
+            + "where r.id = :id")
+    int increment(@Param("id") Long id, @Param("modifiedAt") long modifiedAt);
+
+}
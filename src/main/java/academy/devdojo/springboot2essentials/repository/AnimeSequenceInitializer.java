@@ -0,0 +1,60 @@
+package academy.devdojo.springboot2essentials.repository;
+
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class AnimeSequenceInitializer implements SmartInitializingSingleton {
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // runs once the schema update created the sequence and before the web server accepts writes
+    @Override
+    public void afterSingletonsInstantiated() {
+        seed();
+    }
+
+    public void seed() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from anime", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // the pooled optimizer hands out the allocation size ids up to each value it reads, tables that predate the
+        // sequence would otherwise get ids that are already taken
+        long nextValue = maxId + Anime.ID_ALLOCATION_SIZE;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (dialect.supportsSequences()) {
+            Long currentValue = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(Anime.ID_SEQUENCE),
+                    Long.class);
+            if (currentValue != null && currentValue >= nextValue) {
+                return;
+            }
+            jdbcTemplate.execute("alter sequence " + Anime.ID_SEQUENCE + " restart with " + nextValue);
+        } else {
+            // databases without sequences, like MySQL, get a single-row table instead
+            List<Long> currentValue = jdbcTemplate.queryForList("select next_val from " + Anime.ID_SEQUENCE,
+                    Long.class);
+            if (currentValue.isEmpty()) {
+                jdbcTemplate.update("insert into " + Anime.ID_SEQUENCE + " (next_val) values (?)", nextValue);
+            } else if (currentValue.get(0) < nextValue) {
+                jdbcTemplate.update("update " + Anime.ID_SEQUENCE + " set next_val = ?", nextValue);
+            } else {
+                return;
+            }
+        }
+        log.info("Moved {} to {} past the existing anime ids", Anime.ID_SEQUENCE, nextValue);
+    }
+}
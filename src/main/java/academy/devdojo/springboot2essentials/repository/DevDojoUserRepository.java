@@ -1,10 +1,18 @@
 package academy.devdojo.springboot2essentials.repository;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import academy.devdojo.springboot2essentials.cache.SecondLevelCacheRegions;
 import academy.devdojo.springboot2essentials.domain.DevDojoUser;
 
 public interface DevDojoUserRepository extends JpaRepository<DevDojoUser, Long> {
-    
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = SecondLevelCacheRegions.DEV_DOJO_USER_QUERIES)
+    })
     DevDojoUser findByUsername(String username);
 }
@@ -0,0 +1,326 @@
+package academy.devdojo.springboot2essentials.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.data.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.domain.AnimeRevision;
+import academy.devdojo.springboot2essentials.exception.BadRequestException;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("reactive")
+public class ReactiveAnimeRepository {
+    private static final String SELECT_ANIME = "select id, name, version from anime";
+    private static final String SELECT_ANIME_SUMMARY = "select id, name from anime";
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("id", "name", "version");
+    private static final String NAME_STARTING_WITH = " where name like :prefix escape '!'";
+
+    private final DatabaseClient databaseClient;
+    private final String selectNextIdBlock;
+    private final Object idLock = new Object();
+    private long nextPooledId = 1;
+    private long lastPooledId;
+
+    public ReactiveAnimeRepository(DatabaseClient databaseClient, EntityManagerFactory entityManagerFactory) {
+        this.databaseClient = databaseClient;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.selectNextIdBlock = dialect.supportsSequences()
+                ? "select " + dialect.getSelectSequenceNextValString(Anime.ID_SEQUENCE)
+                : null;
+    }
+
+    public Mono<Anime> findById(long id) {
+        return databaseClient.execute(SELECT_ANIME + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveAnimeRepository::toAnime)
+                .one();
+    }
+
+    public Flux<Anime> findAllById(Collection<Long> ids) {
+        return databaseClient.execute(SELECT_ANIME + " where id in (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<Anime> findAll(Pageable pageable) {
+        return databaseClient.execute(SELECT_ANIME + orderBy(pageable.getSort()) + limit(pageable))
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<AnimeSummary> findAllSummaries(Pageable pageable) {
+        return databaseClient.execute(SELECT_ANIME_SUMMARY + orderBy(pageable.getSort()) + limit(pageable))
+                .map(ReactiveAnimeRepository::toAnimeSummary)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.execute("select count(*) from anime")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Flux<Anime> streamAllByOrderByIdAsc() {
+        return databaseClient.execute(SELECT_ANIME + " order by id asc")
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<AnimeSummary> streamAllSummariesByOrderByIdAsc() {
+        return databaseClient.execute(SELECT_ANIME_SUMMARY + " order by id asc")
+                .map(ReactiveAnimeRepository::toAnimeSummary)
+                .all();
+    }
+
+    public Flux<Anime> findByName(String name) {
+        return databaseClient.execute(SELECT_ANIME + " where name = :name")
+                .bind("name", name)
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<Anime> findByNameStartingWith(String prefix, Pageable pageable) {
+        return databaseClient.execute(SELECT_ANIME + NAME_STARTING_WITH + orderBy(pageable.getSort()) + limit(pageable))
+                .bind("prefix", escapeLike(prefix) + "%")
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Mono<Long> countByNameStartingWith(String prefix) {
+        return databaseClient.execute("select count(*) from anime" + NAME_STARTING_WITH)
+                .bind("prefix", escapeLike(prefix) + "%")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Flux<Anime> findSlice(Pageable pageable) {
+        // one row past the page tells whether there is a next one without counting
+        return databaseClient.execute(SELECT_ANIME + orderBy(pageable.getSort())
+                + limit(pageable.getPageSize() + 1, pageable.getOffset()))
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<Anime> findAllByOrderByIdAsc(int limit) {
+        return databaseClient.execute(SELECT_ANIME + " order by id asc" + limit(limit, 0))
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<Anime> findByIdGreaterThanOrderByIdAsc(long id, int limit) {
+        return databaseClient.execute(SELECT_ANIME + " where id > :id order by id asc" + limit(limit, 0))
+                .bind("id", id)
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<Anime> findAllByOrderByNameAscIdAsc(int limit) {
+        return databaseClient.execute(SELECT_ANIME + " order by name asc, id asc" + limit(limit, 0))
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<Anime> findAfterNameAndId(String name, long id, int limit) {
+        return databaseClient.execute(SELECT_ANIME + " where name > :name or (name = :name and id > :id)"
+                + " order by name asc, id asc" + limit(limit, 0))
+                .bind("name", name)
+                .bind("id", id)
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<Long> findExistingIds(Collection<Long> ids) {
+        return databaseClient.execute("select id from anime where id in (:ids)")
+                .bind("ids", ids)
+                .map(row -> row.get(0, Long.class))
+                .all();
+    }
+
+    public Mono<Integer> findVersionById(long id) {
+        return databaseClient.execute("select version from anime where id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Integer.class))
+                .one();
+    }
+
+    // ids come from the same sequence, in the same blocks, as the ones Hibernate's pooled optimizer hands out to the
+    // JPA writes, so both stacks can insert into the table side by side
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            synchronized (idLock) {
+                if (nextPooledId <= lastPooledId) {
+                    return Mono.just(nextPooledId++);
+                }
+            }
+            return nextIdBlock().map(lastId -> {
+                // the sequence starts at 1, a first block only holds that id
+                long firstId = Math.max(1, lastId - Anime.ID_ALLOCATION_SIZE + 1);
+                synchronized (idLock) {
+                    // a concurrent caller may have refilled the pool in the meantime, the rest of this block is lost
+                    if (nextPooledId > lastPooledId) {
+                        nextPooledId = firstId + 1;
+                        lastPooledId = lastId;
+                    }
+                }
+                return firstId;
+            });
+        });
+    }
+
+    // one multi-row insert, R2DBC has no JDBC-style batching of a single prepared statement
+    public Mono<Integer> insertAll(Map<Long, String> namesById) {
+        List<String> rows = new ArrayList<>(namesById.size());
+        for (int i = 0; i < namesById.size(); i++) {
+            rows.add("(:id" + i + ", :name" + i + ", 0)");
+        }
+        GenericExecuteSpec insert = databaseClient.execute("insert into anime (id, name, version) values "
+                + String.join(", ", rows));
+        int i = 0;
+        for (Map.Entry<Long, String> nameById : namesById.entrySet()) {
+            insert = insert.bind("id" + i, nameById.getKey()).bind("name" + i++, nameById.getValue());
+        }
+        return insert.fetch().rowsUpdated();
+    }
+
+    public Mono<Integer> updateName(long id, String name) {
+        return databaseClient.execute("update anime set name = :name, version = version + 1 where id = :id")
+                .bind("name", name)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> updateNameIfVersion(long id, String name, int version) {
+        return databaseClient.execute("update anime set name = :name, version = version + 1"
+                + " where id = :id and version = :version")
+                .bind("name", name)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> updateNames(Map<Long, String> namesById) {
+        StringBuilder sql = new StringBuilder("update anime set name = case id");
+        for (int i = 0; i < namesById.size(); i++) {
+            sql.append(" when :id").append(i).append(" then :name").append(i);
+        }
+        sql.append(" else name end, version = version + 1 where id in (:ids)");
+        GenericExecuteSpec update = databaseClient.execute(sql.toString())
+                .bind("ids", namesById.keySet());
+        int i = 0;
+        for (Map.Entry<Long, String> nameById : namesById.entrySet()) {
+            update = update.bind("id" + i, nameById.getKey()).bind("name" + i++, nameById.getValue());
+        }
+        return update.fetch().rowsUpdated();
+    }
+
+    public Mono<Integer> deleteByIds(Collection<Long> ids) {
+        return databaseClient.execute("delete from anime where id in (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> incrementRevision(long modifiedAt) {
+        return databaseClient.execute("update anime_revision set revision = revision + 1,"
+                + " modified_at = case when modified_at < :modifiedAt then :modifiedAt else modified_at end"
+                + " where id = :id")
+                .bind("modifiedAt", modifiedAt)
+                .bind("id", AnimeRevision.ID)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<AnimeRevision> findRevision() {
+        return databaseClient.execute("select revision, modified_at from anime_revision where id = :id")
+                .bind("id", AnimeRevision.ID)
+                .map(row -> AnimeRevision.builder()
+                        .id(AnimeRevision.ID)
+                        .revision(row.get(0, Long.class))
+                        .modifiedAt(row.get(1, Long.class))
+                        .build())
+                .one();
+    }
+
+    private static Anime toAnime(Row row) {
+        return Anime.builder()
+                .id(row.get(0, Long.class))
+                .name(row.get(1, String.class))
+                .version(row.get(2, Integer.class))
+                .build();
+    }
+
+    private static AnimeSummary toAnimeSummary(Row row) {
+        return new AnimeSummary(row.get(0, Long.class), row.get(1, String.class));
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        return sort.stream()
+                .map(order -> column(order.getProperty()) + (order.isAscending() ? " asc" : " desc"))
+                .collect(Collectors.joining(", ", " order by ", ""));
+    }
+
+    private static String column(String property) {
+        // the column is concatenated into the query, so only known columns may get there
+        if (!SORTABLE_COLUMNS.contains(property)) {
+            throw new BadRequestException("Animes cannot be sorted by " + property);
+        }
+        return property;
+    }
+
+    private static String limit(Pageable pageable) {
+        return limit(pageable.getPageSize(), pageable.getOffset());
+    }
+
+    private static String limit(int limit, long offset) {
+        return " limit " + limit + " offset " + offset;
+    }
+
+    private Mono<Long> nextIdBlock() {
+        if (selectNextIdBlock != null) {
+            return databaseClient.execute(selectNextIdBlock)
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+        // databases without sequences, like MySQL, get Hibernate's single-row table, claimed the way its
+        // TableStructure does it: the value read is the last id of the block, the row moves on by the block size
+        return databaseClient.execute("select next_val from " + Anime.ID_SEQUENCE)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(lastId -> databaseClient.execute("update " + Anime.ID_SEQUENCE
+                        + " set next_val = :nextValue where next_val = :lastId")
+                        .bind("nextValue", lastId + Anime.ID_ALLOCATION_SIZE)
+                        .bind("lastId", lastId)
+                        .fetch()
+                        .rowsUpdated()
+                        .flatMap(updated -> updated == 1 ? Mono.just(lastId) : nextIdBlock()));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
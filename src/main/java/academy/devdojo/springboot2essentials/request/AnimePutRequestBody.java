@@ -1,11 +1,16 @@
 package academy.devdojo.springboot2essentials.request;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class AnimePutRequestBody {
     private Long id;
-    private String name;    
+    private String name;
+    private Integer version;
 }
@@ -0,0 +1,16 @@
+package academy.devdojo.springboot2essentials.request;
+
+import academy.devdojo.springboot2essentials.exception.BadRequestException;
+
+public enum CountMode {
+    EXACT, APPROXIMATE, NONE;
+
+    public static CountMode of(String value) {
+        for (CountMode countMode : values()) {
+            if (countMode.name().equalsIgnoreCase(value)) {
+                return countMode;
+            }
+        }
+        throw new BadRequestException("The count must be one of exact, approximate or none");
+    }
+}
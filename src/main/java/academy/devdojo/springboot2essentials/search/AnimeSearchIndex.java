@@ -0,0 +1,510 @@
+package academy.devdojo.springboot2essentials.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.wrapper.AnimeSuggestion;
+
+@Component
+public class AnimeSearchIndex {
+    private static final int MIN_QUERY_LENGTH = 2;
+    private static final double MIN_COVERAGE = 0.5;
+    private static final int MIN_DELETED_BEFORE_COMPACTION = 1024;
+    static final int MAX_CANDIDATE_POSTINGS = 20_000;
+    private static final Comparator<AnimeSuggestion> RANKING = Comparator
+            .comparingDouble(AnimeSuggestion::getScore).reversed()
+            .thenComparing(AnimeSuggestion::getId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Documents documents = new Documents();
+    private List<Consumer<Documents>> writesDuringRebuild;
+
+    public interface Builder {
+        void put(long id, String name);
+    }
+
+    public void put(long id, String name) {
+        long[] trigrams = trigrams(normalize(name) + ' ');
+        write(documents -> {
+            documents.remove(id);
+            documents.add(id, name, trigrams);
+        });
+    }
+
+    public void putAll(Map<Long, String> namesById) {
+        long[] ids = new long[namesById.size()];
+        String[] names = new String[ids.length];
+        long[][] nameTrigrams = new long[ids.length][];
+        int i = 0;
+        for (Map.Entry<Long, String> nameById : namesById.entrySet()) {
+            ids[i] = nameById.getKey();
+            names[i] = nameById.getValue();
+            nameTrigrams[i++] = trigrams(normalize(nameById.getValue()) + ' ');
+        }
+        write(documents -> {
+            for (int j = 0; j < ids.length; j++) {
+                documents.remove(ids[j]);
+                documents.add(ids[j], names[j], nameTrigrams[j]);
+            }
+        });
+    }
+
+    public void remove(long id) {
+        write(documents -> documents.remove(id));
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        long[] removedIds = ids.stream().mapToLong(Long::longValue).toArray();
+        write(documents -> {
+            for (long id : removedIds) {
+                documents.remove(id);
+            }
+        });
+    }
+
+    // the new index is built off to the side while the current one keeps serving searches and writes, the writes
+    // made in the meantime are replayed on it before it replaces the current one
+    public void rebuild(Consumer<Builder> load) {
+        lock.writeLock().lock();
+        try {
+            if (writesDuringRebuild != null) {
+                throw new IllegalStateException("The search index is already being rebuilt");
+            }
+            writesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Documents rebuilt = new Documents();
+            load.accept((id, name) -> {
+                rebuilt.remove(id);
+                rebuilt.add(id, name, trigrams(normalize(name) + ' '));
+            });
+
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild.forEach(write -> write.accept(rebuilt));
+                rebuilt.compactIfNeeded();
+                rebuilt.postings.trim();
+                documents = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.documentsByAnimeId.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<AnimeSuggestion> search(String query, int limit) {
+        String normalized = normalize(query).stripTrailing();
+        if (normalized.length() - 1 < MIN_QUERY_LENGTH) {
+            return List.of();
+        }
+        // the query is not padded at the end so that a partially typed word still matches
+        long[] queryTrigrams = trigrams(normalized);
+
+        lock.readLock().lock();
+        try {
+            return documents.search(queryTrigrams, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Documents> write) {
+        lock.writeLock().lock();
+        try {
+            write.accept(documents);
+            documents.compactIfNeeded();
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text == null ? "" : text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length() + 2).append(' ');
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            } else if (normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[text.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static final class Documents {
+        private PostingMap postings = new PostingMap();
+        private DocumentMap documentsByAnimeId = new DocumentMap();
+        private long[] animeIds = new long[16];
+        private String[] names = new String[16];
+        private int[] trigramCounts = new int[16];
+        private BitSet deleted = new BitSet();
+        private int documentCount;
+        private int deletedCount;
+
+        private List<AnimeSuggestion> search(long[] queryTrigrams, int limit) {
+            int minShared = (int) Math.ceil(queryTrigrams.length * MIN_COVERAGE);
+            PostingList[] lists = new PostingList[queryTrigrams.length];
+            int present = 0;
+            for (long trigram : queryTrigrams) {
+                PostingList list = postings.get(trigram);
+                if (list != null) {
+                    lists[present++] = list;
+                }
+            }
+            if (present < minShared) {
+                return List.of();
+            }
+            Arrays.sort(lists, 0, present, Comparator.comparingInt(list -> list.size));
+
+            // a match must appear in one of the (present - minShared + 1) rarest lists; very common trigrams
+            // beyond the candidate budget are only used to score the candidates found in the rarer ones
+            int candidateLists = 0;
+            int total = 0;
+            while (candidateLists < present - minShared + 1
+                    && total + lists[candidateLists].size <= MAX_CANDIDATE_POSTINGS) {
+                total += lists[candidateLists++].size;
+            }
+            if (candidateLists == 0) {
+                // even the rarest trigram is over budget, e.g. a short query of common letters, so only the first
+                // documents of its list are ranked instead of sizing the counter to the whole corpus per keystroke
+                candidateLists = 1;
+                total = MAX_CANDIDATE_POSTINGS;
+            }
+
+            DocumentCounter counter = new DocumentCounter(total);
+            for (int i = 0; i < candidateLists; i++) {
+                for (int j = 0, size = Math.min(lists[i].size, total); j < size; j++) {
+                    counter.increment(lists[i].documents[j]);
+                }
+            }
+
+            PriorityQueue<AnimeSuggestion> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (int slot = 0; slot < counter.documents.length; slot++) {
+                int document = counter.documents[slot];
+                if (document < 0 || deleted.get(document)) {
+                    continue;
+                }
+                int shared = counter.counts[slot];
+                for (int i = candidateLists; i < present && shared + present - i >= minShared; i++) {
+                    if (Arrays.binarySearch(lists[i].documents, 0, lists[i].size, document) >= 0) {
+                        shared++;
+                    }
+                }
+                if (shared < minShared) {
+                    continue;
+                }
+                double coverage = (double) shared / queryTrigrams.length;
+                double similarity = 2.0 * shared / (queryTrigrams.length + trigramCounts[document]);
+                double score = (coverage + similarity) / 2;
+                if (top.size() == limit && score < top.peek().getScore()) {
+                    continue;
+                }
+                top.add(AnimeSuggestion.builder()
+                        .id(animeIds[document])
+                        .name(names[document])
+                        .score(score)
+                        .build());
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<AnimeSuggestion> suggestions = new ArrayList<>(top);
+            suggestions.sort(RANKING);
+            return suggestions;
+        }
+
+        private void add(long id, String name, long[] trigrams) {
+            int document = documentCount++;
+            if (document == animeIds.length) {
+                int capacity = animeIds.length * 2;
+                animeIds = Arrays.copyOf(animeIds, capacity);
+                names = Arrays.copyOf(names, capacity);
+                trigramCounts = Arrays.copyOf(trigramCounts, capacity);
+            }
+            animeIds[document] = id;
+            names[document] = name;
+            trigramCounts[document] = trigrams.length;
+            documentsByAnimeId.put(id, document);
+            for (long trigram : trigrams) {
+                postings.getOrCreate(trigram).add(document);
+            }
+        }
+
+        private void remove(long id) {
+            int document = documentsByAnimeId.remove(id);
+            if (document != DocumentMap.ABSENT) {
+                deleted.set(document);
+                names[document] = null;
+                deletedCount++;
+            }
+        }
+
+        private void compactIfNeeded() {
+            if (deletedCount < MIN_DELETED_BEFORE_COMPACTION || deletedCount * 2 < documentCount) {
+                return;
+            }
+            long[] liveIds = new long[documentsByAnimeId.size];
+            String[] liveNames = new String[liveIds.length];
+            int live = 0;
+            for (int document = 0; document < documentCount; document++) {
+                if (!deleted.get(document)) {
+                    liveIds[live] = animeIds[document];
+                    liveNames[live++] = names[document];
+                }
+            }
+
+            postings = new PostingMap();
+            documentsByAnimeId = new DocumentMap();
+            animeIds = new long[Math.max(16, live)];
+            names = new String[animeIds.length];
+            trigramCounts = new int[animeIds.length];
+            deleted = new BitSet();
+            documentCount = 0;
+            deletedCount = 0;
+            for (int i = 0; i < live; i++) {
+                add(liveIds[i], liveNames[i], trigrams(normalize(liveNames[i]) + ' '));
+            }
+            postings.trim();
+        }
+    }
+
+    // open addressing on the raw trigrams, a HashMap would box every key and allocate an entry per trigram
+    private static final class PostingMap {
+        private long[] trigrams = new long[64];
+        private PostingList[] lists = new PostingList[64];
+        private int size;
+
+        private PostingList get(long trigram) {
+            int mask = trigrams.length - 1;
+            for (int slot = slot(trigram, mask); lists[slot] != null; slot = (slot + 1) & mask) {
+                if (trigrams[slot] == trigram) {
+                    return lists[slot];
+                }
+            }
+            return null;
+        }
+
+        private PostingList getOrCreate(long trigram) {
+            int mask = trigrams.length - 1;
+            int slot = slot(trigram, mask);
+            while (lists[slot] != null) {
+                if (trigrams[slot] == trigram) {
+                    return lists[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            if ((size + 1) * 2 > trigrams.length) {
+                grow();
+                return getOrCreate(trigram);
+            }
+            trigrams[slot] = trigram;
+            lists[slot] = new PostingList();
+            size++;
+            return lists[slot];
+        }
+
+        private void grow() {
+            long[] oldTrigrams = trigrams;
+            PostingList[] oldLists = lists;
+            trigrams = new long[oldTrigrams.length * 2];
+            lists = new PostingList[trigrams.length];
+            int mask = trigrams.length - 1;
+            for (int i = 0; i < oldLists.length; i++) {
+                if (oldLists[i] != null) {
+                    int slot = slot(oldTrigrams[i], mask);
+                    while (lists[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    trigrams[slot] = oldTrigrams[i];
+                    lists[slot] = oldLists[i];
+                }
+            }
+        }
+
+        private void trim() {
+            for (PostingList list : lists) {
+                if (list != null) {
+                    list.trim();
+                }
+            }
+        }
+    }
+
+    // anime id to document, open addressing with backward-shift deletion so removals leave no tombstones
+    private static final class DocumentMap {
+        private static final int ABSENT = -1;
+
+        private long[] animeIds = new long[32];
+        private int[] documents = filled(32);
+        private int size;
+
+        private void put(long animeId, int document) {
+            if ((size + 1) * 2 > animeIds.length) {
+                grow();
+            }
+            int mask = animeIds.length - 1;
+            int slot = slot(animeId, mask);
+            while (documents[slot] != ABSENT) {
+                if (animeIds[slot] == animeId) {
+                    documents[slot] = document;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            animeIds[slot] = animeId;
+            documents[slot] = document;
+            size++;
+        }
+
+        private int remove(long animeId) {
+            int mask = animeIds.length - 1;
+            for (int slot = slot(animeId, mask); documents[slot] != ABSENT; slot = (slot + 1) & mask) {
+                if (animeIds[slot] == animeId) {
+                    int document = documents[slot];
+                    shiftBack(slot, mask);
+                    size--;
+                    return document;
+                }
+            }
+            return ABSENT;
+        }
+
+        private void shiftBack(int gap, int mask) {
+            for (int slot = (gap + 1) & mask; documents[slot] != ABSENT; slot = (slot + 1) & mask) {
+                // an entry may only move back if the gap is not before its home slot
+                int home = slot(animeIds[slot], mask);
+                if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                    animeIds[gap] = animeIds[slot];
+                    documents[gap] = documents[slot];
+                    gap = slot;
+                }
+            }
+            documents[gap] = ABSENT;
+        }
+
+        private void grow() {
+            long[] oldAnimeIds = animeIds;
+            int[] oldDocuments = documents;
+            animeIds = new long[oldAnimeIds.length * 2];
+            documents = filled(animeIds.length);
+            int mask = animeIds.length - 1;
+            for (int i = 0; i < oldDocuments.length; i++) {
+                if (oldDocuments[i] != ABSENT) {
+                    int slot = slot(oldAnimeIds[i], mask);
+                    while (documents[slot] != ABSENT) {
+                        slot = (slot + 1) & mask;
+                    }
+                    animeIds[slot] = oldAnimeIds[i];
+                    documents[slot] = oldDocuments[i];
+                }
+            }
+        }
+
+        private static int[] filled(int capacity) {
+            int[] documents = new int[capacity];
+            Arrays.fill(documents, ABSENT);
+            return documents;
+        }
+    }
+
+    private static final class PostingList {
+        private int[] documents = new int[2];
+        private int size;
+
+        private void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size + (size >> 1) + 1);
+            }
+            documents[size++] = document;
+        }
+
+        private void trim() {
+            documents = Arrays.copyOf(documents, size);
+        }
+    }
+
+    private static final class DocumentCounter {
+        private final int[] documents;
+        private final int[] counts;
+        private final int mask;
+
+        private DocumentCounter(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(2, expected) * 2 - 1) << 1;
+            this.documents = new int[capacity];
+            this.counts = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(documents, -1);
+        }
+
+        private void increment(int document) {
+            int slot = (document * 0x9E3779B9) >>> 1 & mask;
+            while (documents[slot] >= 0 && documents[slot] != document) {
+                slot = (slot + 1) & mask;
+            }
+            documents[slot] = document;
+            counts[slot]++;
+        }
+    }
+}
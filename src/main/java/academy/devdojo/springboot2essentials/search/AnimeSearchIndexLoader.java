@@ -0,0 +1,31 @@
+package academy.devdojo.springboot2essentials.search;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import academy.devdojo.springboot2essentials.service.AnimeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class AnimeSearchIndexLoader {
+    private final AnimeService animeService;
+    private final AnimeSearchIndex animeSearchIndex;
+
+    // read-write so it is served by the primary, writes a lagging replica has not seen yet would never be indexed;
+    // requests are already being served, so suggestions keep using the current index until the new one is complete
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        long start = System.nanoTime();
+        animeSearchIndex.rebuild(index -> animeService.streamAll(anime -> index.put(anime.getId(), anime.getName())));
+        log.info("Indexed {} animes for suggestions in {} ms", animeSearchIndex.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,23 @@
+package academy.devdojo.springboot2essentials.security;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.cache.AuthenticationCache;
+import academy.devdojo.springboot2essentials.domain.DevDojoUser;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class DevDojoUserCacheEvictionListener {
+    private final ObjectProvider<AuthenticationCache> authenticationCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(DevDojoUser devDojoUser) {
+        authenticationCache.ifAvailable(cache -> cache.evict(devDojoUser));
+    }
+}
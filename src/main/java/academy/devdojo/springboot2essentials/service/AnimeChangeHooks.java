@@ -0,0 +1,38 @@
+package academy.devdojo.springboot2essentials.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.cache.AnimeCache;
+import academy.devdojo.springboot2essentials.cache.AnimeCountCache;
+import academy.devdojo.springboot2essentials.search.AnimeSearchIndex;
+import lombok.RequiredArgsConstructor;
+
+// run once a write committed, a concurrent reader may have cached the old row while it was still in flight; they only
+// touch memory, so the JPA writes call them from a transaction synchronization and the reactive ones on the event loop
+@Component
+@RequiredArgsConstructor
+public class AnimeChangeHooks {
+    private final AnimeCache animeCache;
+    private final AnimeSearchIndex animeSearchIndex;
+    private final AnimeCountCache animeCountCache;
+
+    public void saved(Map<Long, String> namesById) {
+        animeCache.evictAll(namesById.keySet());
+        animeSearchIndex.putAll(namesById);
+        animeCountCache.add(namesById.size());
+    }
+
+    public void replaced(Map<Long, String> namesById) {
+        animeCache.evictAll(namesById.keySet());
+        animeSearchIndex.putAll(namesById);
+    }
+
+    public void deleted(Collection<Long> ids) {
+        animeCache.evictAll(ids);
+        animeSearchIndex.removeAll(ids);
+        animeCountCache.add(-ids.size());
+    }
+}
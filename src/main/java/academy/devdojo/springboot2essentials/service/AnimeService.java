@@ -1,60 +1,505 @@
 package academy.devdojo.springboot2essentials.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
+import academy.devdojo.springboot2essentials.cache.AnimeCache;
+import academy.devdojo.springboot2essentials.cache.AnimeChangeCounter;
+import academy.devdojo.springboot2essentials.cache.AnimeCountCache;
+import academy.devdojo.springboot2essentials.cache.SecondLevelCache;
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+import academy.devdojo.springboot2essentials.datasource.PrimaryReads;
 import academy.devdojo.springboot2essentials.domain.Anime;
 import academy.devdojo.springboot2essentials.exception.BadRequestException;
+import academy.devdojo.springboot2essentials.exception.PreconditionFailedException;
 import academy.devdojo.springboot2essentials.mapper.AnimeMapper;
 import academy.devdojo.springboot2essentials.repository.AnimeRepository;
 import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
 import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+import academy.devdojo.springboot2essentials.request.CountMode;
+import academy.devdojo.springboot2essentials.search.AnimeSearchIndex;
+import academy.devdojo.springboot2essentials.util.KeysetCursor;
+import academy.devdojo.springboot2essentials.util.TransactionCallbacks;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSuggestion;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
+import academy.devdojo.springboot2essentials.wrapper.BatchItemResult;
+import academy.devdojo.springboot2essentials.wrapper.BulkOperationResponse;
+import academy.devdojo.springboot2essentials.wrapper.CacheRegionStatistics;
+import academy.devdojo.springboot2essentials.wrapper.CacheStatistics;
+import academy.devdojo.springboot2essentials.wrapper.KeysetResponse;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class AnimeService {
+    private static final int MAX_KEYSET_PAGE_SIZE = 2000;
+    private static final int MAX_SUGGESTIONS = 50;
+    static final int MAX_LOOKUP_IDS = 1000;
+
     private final AnimeRepository animeRepository;
+    private final EntityManager entityManager;
+    private final AnimeCache animeCache;
+    private final AnimeChangeHooks animeChangeHooks;
+    private final Validator validator;
+    private final DevDojoProperties devDojoProperties;
+    private final AnimeSearchIndex animeSearchIndex;
+    private final AnimeCountCache animeCountCache;
+    private final AnimeChangeCounter animeChangeCounter;
+    private final SecondLevelCache secondLevelCache;
+    private final PrimaryReads primaryReads;
 
+    @Transactional(readOnly = true)
     public Page<Anime> listAll(Pageable pageable) {
         return animeRepository.findAll(pageable);
     }
-    
+
+    @Transactional(readOnly = true)
+    public Page<AnimeSummary> listSummaries(Pageable pageable) {
+        return animeRepository.findAllSummaries(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Anime> listAll(Pageable pageable, CountMode countMode) {
+        switch (countMode) {
+            case NONE:
+                return animeRepository.findAllBy(pageable);
+            case APPROXIMATE:
+                Slice<Anime> slice = animeRepository.findAllBy(pageable);
+                // the last page gives the exact total, an empty page past the end says nothing about it
+                if (!slice.hasNext() && slice.hasContent()) {
+                    long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+                    return new PageImpl<>(slice.getContent(), pageable, offset + slice.getNumberOfElements());
+                }
+                return new PageImpl<>(slice.getContent(), pageable, animeCountCache.get());
+            default:
+                return animeRepository.findAll(pageable);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetResponse<Anime> listAfter(String after, int size, String sort) {
+        boolean sortByName = keysetSortsByName(size, sort);
+        KeysetCursor cursor = keysetCursor(after, sortByName);
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Anime> slice;
+        if (sortByName) {
+            slice = cursor == null
+                    ? animeRepository.findAllByOrderByNameAscIdAsc(pageable)
+                    : animeRepository.findAfterNameAndId(cursor.getName(), cursor.getId(), pageable);
+        } else {
+            slice = cursor == null
+                    ? animeRepository.findAllByOrderByIdAsc(pageable)
+                    : animeRepository.findByIdGreaterThanOrderByIdAsc(cursor.getId(), pageable);
+        }
+        return keysetResponse(slice.getContent(), slice.hasNext(), size, sortByName);
+    }
+
+    @Transactional(readOnly = true)
     public List<Anime> listAllNonPageable() {
         return animeRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<AnimeSummary> listAllSummariesNonPageable() {
+        return animeRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Anime> consumer) {
+        // an export touches every anime once, caching them would only push the hot ones out of the anime region
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        try (Stream<Anime> animes = animeRepository.streamAllByOrderByIdAsc()) {
+            animes.forEach(anime -> {
+                consumer.accept(anime);
+                entityManager.detach(anime);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<Anime> findByName(String name) {
         return animeRepository.findByName(name);
     }
 
+    @Transactional(readOnly = true)
+    public Page<Anime> findByPrefix(String prefix, Pageable pageable) {
+        if (!StringUtils.hasText(prefix)) {
+            throw new BadRequestException("The prefix cannot be empty");
+        }
+        return animeRepository.findByNameStartingWith(prefix.trim(), pageable);
+    }
+
+    public List<AnimeSuggestion> suggest(String query, int limit) {
+        if (!StringUtils.hasText(query)) {
+            throw new BadRequestException("The query cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new BadRequestException("The limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return animeSearchIndex.search(query, limit);
+    }
+
     public Anime findByIdOrThrowBadRequestException(Long id) {
-        return animeRepository.findById(id)
+        return animeCache.get(id, missingId -> primaryReads.read(() -> animeRepository.findById(missingId)))
                 .orElseThrow(() -> new BadRequestException("Anime not found"));
     }
 
+    public AnimeLookupResponse findAllById(List<Long> ids) {
+        if (ids.contains(null)) {
+            throw new BadRequestException("The anime ids cannot be null");
+        }
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        if (requestedIds.size() > MAX_LOOKUP_IDS) {
+            throw new BadRequestException("At most " + MAX_LOOKUP_IDS + " animes can be looked up at once");
+        }
+
+        Map<Long, Optional<Anime>> animesById = animeCache.getAll(requestedIds,
+                missingIds -> primaryReads.read(() -> loadAll(missingIds)));
+        List<Anime> animes = new ArrayList<>(requestedIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Optional<Anime> anime = animesById.getOrDefault(id, Optional.empty());
+            if (anime.isPresent()) {
+                animes.add(anime.get());
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return AnimeLookupResponse.builder()
+                .animes(animes)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    public CacheStatistics cacheStatistics() {
+        return animeCache.statistics();
+    }
+
+    public List<CacheRegionStatistics> cacheRegionStatistics() {
+        return secondLevelCache.statistics();
+    }
+
     @Transactional
     public Anime save(AnimePostRequestBody animePostRequestBody) {
-        return animeRepository.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+        Anime savedAnime = animeRepository.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+        animeChangeCounter.increment();
+        Map<Long, String> savedNames = Map.of(savedAnime.getId(), savedAnime.getName());
+        TransactionCallbacks.afterCommit(() -> animeChangeHooks.saved(savedNames));
+        return savedAnime;
+    }
+
+    @Transactional
+    public List<BatchItemResult> saveAll(Iterator<AnimePostRequestBody> animePostRequestBodies) {
+        int batchSize = devDojoProperties.getBatch().getSize();
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+        List<BatchItemResult> results = new ArrayList<>();
+        Map<Long, String> savedNames = new LinkedHashMap<>();
+        int index = 0;
+        while (animePostRequestBodies.hasNext()) {
+            AnimePostRequestBody animePostRequestBody = animePostRequestBodies.next();
+            String violations = violations(validator, animePostRequestBody);
+            if (violations != null) {
+                results.add(invalid(index, violations));
+            } else {
+                Anime savedAnime = animeRepository.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+                savedNames.put(savedAnime.getId(), savedAnime.getName());
+                results.add(created(index, savedAnime.getId()));
+                if (savedNames.size() % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            index++;
+        }
+        if (!savedNames.isEmpty()) {
+            animeChangeCounter.increment();
+        }
+        TransactionCallbacks.afterCommit(() -> animeChangeHooks.saved(savedNames));
+        return results;
+    }
+
+    @Transactional
+    public BulkOperationResponse replaceAll(List<AnimePutRequestBody> animePutRequestBodies) {
+        Map<Long, String> namesById = namesById(animePutRequestBodies);
+
+        int affected = 0;
+        List<Long> missingIds = new ArrayList<>();
+        for (List<Long> chunk : chunks(namesById.keySet(), devDojoProperties.getBatch().getChunkSize())) {
+            Map<Long, String> chunkNames = new LinkedHashMap<>();
+            chunk.forEach(id -> chunkNames.put(id, namesById.get(id)));
+            int updated = animeRepository.updateNames(chunkNames);
+            if (updated < chunk.size()) {
+                missingIds.addAll(missingIds(chunk, animeRepository.findExistingIds(chunk)));
+            }
+            affected += updated;
+        }
+        missingIds.forEach(namesById::remove);
+        if (affected > 0) {
+            animeChangeCounter.increment();
+        }
+        TransactionCallbacks.afterCommit(() -> animeChangeHooks.replaced(namesById));
+        return BulkOperationResponse.builder()
+                .affected(affected)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    @Transactional
+    public BulkOperationResponse deleteAll(List<Long> ids) {
+        if (ids.contains(null)) {
+            throw new BadRequestException("The anime ids cannot be null");
+        }
+        SortedSet<Long> uniqueIds = new TreeSet<>(ids);
+
+        int affected = 0;
+        List<Long> missingIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        for (List<Long> chunk : chunks(uniqueIds, devDojoProperties.getBatch().getChunkSize())) {
+            List<Long> existingIds = animeRepository.findExistingIds(chunk);
+            if (!existingIds.isEmpty()) {
+                affected += animeRepository.deleteByIds(existingIds);
+                deletedIds.addAll(existingIds);
+            }
+            missingIds.addAll(missingIds(chunk, existingIds));
+        }
+        if (!deletedIds.isEmpty()) {
+            animeChangeCounter.increment();
+        }
+        TransactionCallbacks.afterCommit(() -> animeChangeHooks.deleted(deletedIds));
+        return BulkOperationResponse.builder()
+                .affected(affected)
+                .missingIds(missingIds)
+                .build();
     }
 
     @Transactional
     public void delete(long id) {
         animeRepository.delete(findByIdOrThrowBadRequestException(id));
+        animeChangeCounter.increment();
+        TransactionCallbacks.afterCommit(() -> animeChangeHooks.deleted(List.of(id)));
     }
 
     @Transactional
-    public void replace(AnimePutRequestBody animePutRequestBody) {
-        Anime savedAnime = this.findByIdOrThrowBadRequestException(animePutRequestBody.getId());
-        Anime anime = AnimeMapper.INSTANCE.toAnime(animePutRequestBody);
-        anime.setId(savedAnime.getId());
-        animeRepository.save(anime);
+    public void replace(AnimePutRequestBody animePutRequestBody, String ifMatch) {
+        Integer expectedVersion = expectedVersion(animePutRequestBody, ifMatch);
+        Long id = animePutRequestBody.getId();
+        String name = animePutRequestBody.getName();
+        int updated = expectedVersion == null
+                ? animeRepository.updateName(id, name)
+                : animeRepository.updateNameIfVersion(id, name, expectedVersion);
+        if (updated == 0) {
+            if (matchesAnyVersion(ifMatch)) {
+                throw anyVersionMissing();
+            }
+            throw versionMismatch(animeRepository.findVersionById(id));
+        }
+
+        animeChangeCounter.increment();
+        TransactionCallbacks.afterCommit(() -> animeChangeHooks.replaced(Map.of(id, name)));
+    }
+
+    // the strong entity tag GET /animes/{id} sends, clients echo it in If-Match to replace only that version
+    public static String entityTag(Anime anime) {
+        return "\"" + anime.getVersion() + "\"";
+    }
+
+    // the helpers below are shared with ReactiveAnimeService, so both stacks validate and answer the same way
+
+    static boolean keysetSortsByName(int size, String sort) {
+        if (size < 1 || size > MAX_KEYSET_PAGE_SIZE) {
+            throw new BadRequestException("The page size must be between 1 and " + MAX_KEYSET_PAGE_SIZE);
+        }
+        boolean sortByName = "name".equalsIgnoreCase(sort);
+        if (!sortByName && !"id".equalsIgnoreCase(sort)) {
+            throw new BadRequestException("Keyset pagination can only be sorted by id or name");
+        }
+        return sortByName;
+    }
+
+    static KeysetCursor keysetCursor(String after, boolean sortByName) {
+        KeysetCursor cursor = StringUtils.hasText(after) ? KeysetCursor.decode(after) : null;
+        if (sortByName && cursor != null && cursor.getName() == null) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return cursor;
+    }
+
+    static KeysetResponse<Anime> keysetResponse(List<Anime> content, boolean hasNext, int size, boolean sortByName) {
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            Anime last = content.get(content.size() - 1);
+            nextCursor = KeysetCursor.of(last.getId(), sortByName ? last.getName() : null).encode();
+        }
+
+        return KeysetResponse.<Anime>builder()
+                .content(content)
+                .size(size)
+                .numberOfElements(content.size())
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    static Integer expectedVersion(AnimePutRequestBody animePutRequestBody, String ifMatch) {
+        if (animePutRequestBody.getId() == null) {
+            throw new BadRequestException("The anime id cannot be null");
+        }
+        if (!StringUtils.hasText(animePutRequestBody.getName())) {
+            throw new BadRequestException("The anime name cannot be empty");
+        }
+        return StringUtils.hasText(ifMatch)
+                ? parseVersion(ifMatch)
+                : animePutRequestBody.getVersion();
+    }
+
+    static boolean matchesAnyVersion(String ifMatch) {
+        return StringUtils.hasText(ifMatch) && "*".equals(ifMatch.trim());
+    }
+
+    // the unversioned update only misses an anime that does not exist, which If-Match: * must fail on with 412
+    // instead of 400 (RFC 7232 3.1)
+    static PreconditionFailedException anyVersionMissing() {
+        return new PreconditionFailedException("If-Match: * requires an existing anime");
+    }
+
+    static RuntimeException versionMismatch(Optional<Integer> currentVersion) {
+        if (currentVersion.isEmpty()) {
+            return new BadRequestException("Anime not found");
+        }
+        return new PreconditionFailedException("The anime was modified by another request, the current version is "
+                + currentVersion.get());
+    }
+
+    static Map<Long, String> namesById(List<AnimePutRequestBody> animePutRequestBodies) {
+        Map<Long, String> namesById = new TreeMap<>();
+        for (AnimePutRequestBody animePutRequestBody : animePutRequestBodies) {
+            if (animePutRequestBody == null || animePutRequestBody.getId() == null
+                    || !StringUtils.hasText(animePutRequestBody.getName())) {
+                throw new BadRequestException("Every anime must have an id and a name");
+            }
+            namesById.put(animePutRequestBody.getId(), animePutRequestBody.getName());
+        }
+        return namesById;
+    }
+
+    static String violations(Validator validator, AnimePostRequestBody animePostRequestBody) {
+        if (animePostRequestBody == null) {
+            return "The anime cannot be null";
+        }
+        Set<ConstraintViolation<AnimePostRequestBody>> violations = validator.validate(animePostRequestBody);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    static BatchItemResult invalid(int index, String violations) {
+        return BatchItemResult.builder()
+                .index(index)
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(violations)
+                .build();
+    }
+
+    static BatchItemResult created(int index, long id) {
+        return BatchItemResult.builder()
+                .index(index)
+                .status(HttpStatus.CREATED.value())
+                .id(id)
+                .build();
+    }
+
+    static List<List<Long>> chunks(Collection<Long> sortedIds, int chunkSize) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(chunkSize);
+        for (Long id : sortedIds) {
+            chunk.add(id);
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    static List<Long> missingIds(List<Long> requestedIds, Collection<Long> existingIds) {
+        Set<Long> existing = new HashSet<>(existingIds);
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requestedIds) {
+            if (!existing.contains(id)) {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    private static Integer parseVersion(String ifMatch) {
+        String etag = ifMatch.trim();
+        if ("*".equals(etag)) {
+            return null;
+        }
+        if (etag.contains(",")) {
+            throw new BadRequestException("If-Match must carry a single anime version");
+        }
+        // If-Match uses the strong comparison, a weak ETag like the ones on the listings can never match
+        if (etag.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match cannot be satisfied by a weak ETag");
+        }
+        try {
+            return Integer.valueOf(etag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match must carry the anime version");
+        }
+    }
+
+    private Map<Long, Optional<Anime>> loadAll(Set<Long> ids) {
+        Map<Long, Optional<Anime>> animesById = new HashMap<>();
+        for (List<Long> chunk : chunks(new TreeSet<>(ids), devDojoProperties.getBatch().getChunkSize())) {
+            chunk.forEach(id -> animesById.put(id, Optional.empty()));
+            animeRepository.findAllById(chunk).forEach(anime -> animesById.put(anime.getId(), Optional.of(anime)));
+        }
+        return animesById;
     }
 
 }
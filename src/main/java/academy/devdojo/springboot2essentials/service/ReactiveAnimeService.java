@@ -0,0 +1,359 @@
+package academy.devdojo.springboot2essentials.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import javax.validation.Validator;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+
+import academy.devdojo.springboot2essentials.cache.AnimeCache;
+import academy.devdojo.springboot2essentials.cache.AnimeChangeCounter;
+import academy.devdojo.springboot2essentials.cache.AnimeCountCache;
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.exception.BadRequestException;
+import academy.devdojo.springboot2essentials.repository.ReactiveAnimeRepository;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+import academy.devdojo.springboot2essentials.request.CountMode;
+import academy.devdojo.springboot2essentials.util.KeysetCursor;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
+import academy.devdojo.springboot2essentials.wrapper.BatchItemResult;
+import academy.devdojo.springboot2essentials.wrapper.BulkOperationResponse;
+import academy.devdojo.springboot2essentials.wrapper.KeysetResponse;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAnimeService {
+    private final ReactiveAnimeRepository reactiveAnimeRepository;
+    private final TransactionalOperator reactiveTransactionalOperator;
+    private final AnimeCache animeCache;
+    private final AnimeCountCache animeCountCache;
+    private final AnimeChangeHooks animeChangeHooks;
+    private final Validator validator;
+    private final DevDojoProperties devDojoProperties;
+
+    public Mono<Page<Anime>> listAll(Pageable pageable) {
+        return Mono.zip(reactiveAnimeRepository.findAll(pageable).collectList(), reactiveAnimeRepository.count())
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    public Mono<Page<AnimeSummary>> listSummaries(Pageable pageable) {
+        return Mono.zip(reactiveAnimeRepository.findAllSummaries(pageable).collectList(),
+                reactiveAnimeRepository.count())
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    public Mono<Slice<Anime>> listAll(Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return listAll(pageable).map(page -> page);
+        }
+        return reactiveAnimeRepository.findSlice(pageable)
+                .collectList()
+                .<Slice<Anime>>flatMap(animes -> {
+                    boolean hasNext = animes.size() > pageable.getPageSize();
+                    List<Anime> content = hasNext ? animes.subList(0, pageable.getPageSize()) : animes;
+                    if (countMode == CountMode.NONE) {
+                        return Mono.just(new SliceImpl<>(content, pageable, hasNext));
+                    }
+                    // the last page gives the exact total, an empty page past the end says nothing about it
+                    if (!hasNext && !content.isEmpty()) {
+                        return Mono.just(new PageImpl<>(content, pageable, pageable.getOffset() + content.size()));
+                    }
+                    return cachedCount().map(count -> new PageImpl<>(content, pageable, count));
+                });
+    }
+
+    public Mono<KeysetResponse<Anime>> listAfter(String after, int size, String sort) {
+        return Mono.defer(() -> {
+            boolean sortByName = AnimeService.keysetSortsByName(size, sort);
+            KeysetCursor cursor = AnimeService.keysetCursor(after, sortByName);
+            int limit = size + 1;
+            Flux<Anime> animes;
+            if (sortByName) {
+                animes = cursor == null
+                        ? reactiveAnimeRepository.findAllByOrderByNameAscIdAsc(limit)
+                        : reactiveAnimeRepository.findAfterNameAndId(cursor.getName(), cursor.getId(), limit);
+            } else {
+                animes = cursor == null
+                        ? reactiveAnimeRepository.findAllByOrderByIdAsc(limit)
+                        : reactiveAnimeRepository.findByIdGreaterThanOrderByIdAsc(cursor.getId(), limit);
+            }
+            return animes.collectList()
+                    .map(content -> content.size() > size
+                            ? AnimeService.keysetResponse(content.subList(0, size), true, size, sortByName)
+                            : AnimeService.keysetResponse(content, false, size, sortByName));
+        });
+    }
+
+    public Flux<Anime> streamAll() {
+        return reactiveAnimeRepository.streamAllByOrderByIdAsc();
+    }
+
+    public Flux<AnimeSummary> streamAllSummaries() {
+        return reactiveAnimeRepository.streamAllSummariesByOrderByIdAsc();
+    }
+
+    public Flux<Anime> findByName(String name) {
+        return reactiveAnimeRepository.findByName(name);
+    }
+
+    public Mono<Page<Anime>> findByPrefix(String prefix, Pageable pageable) {
+        if (!StringUtils.hasText(prefix)) {
+            return Mono.error(new BadRequestException("The prefix cannot be empty"));
+        }
+        String trimmedPrefix = prefix.trim();
+        return Mono.zip(reactiveAnimeRepository.findByNameStartingWith(trimmedPrefix, pageable).collectList(),
+                reactiveAnimeRepository.countByNameStartingWith(trimmedPrefix))
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    // the same cache as the servlet stack, R2DBC only connects to the primary, so nothing stale gets cached
+    public Mono<Anime> findByIdOrThrowBadRequestException(long id) {
+        return Mono.fromFuture(() -> animeCache.getAsync(id, missingId -> reactiveAnimeRepository.findById(missingId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture()))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Anime not found")));
+    }
+
+    public Mono<AnimeLookupResponse> findAllById(List<Long> ids) {
+        if (ids.contains(null)) {
+            return Mono.error(new BadRequestException("The anime ids cannot be null"));
+        }
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        if (requestedIds.size() > AnimeService.MAX_LOOKUP_IDS) {
+            return Mono.error(new BadRequestException(
+                    "At most " + AnimeService.MAX_LOOKUP_IDS + " animes can be looked up at once"));
+        }
+        if (requestedIds.isEmpty()) {
+            return Mono.just(lookupResponse(requestedIds, Map.of()));
+        }
+        return reactiveAnimeRepository.findAllById(requestedIds)
+                .collectMap(Anime::getId, Function.identity())
+                .map(animesById -> lookupResponse(requestedIds, animesById));
+    }
+
+    // the ids are claimed before the transaction starts, like Hibernate claims them in a transaction of its own, so
+    // concurrent writes never wait on each other for the sequence
+    public Mono<Anime> save(AnimePostRequestBody animePostRequestBody) {
+        return reactiveAnimeRepository.nextId()
+                .flatMap(id -> reactiveAnimeRepository.insertAll(Map.of(id, animePostRequestBody.getName()))
+                        .then(incrementRevision())
+                        .as(reactiveTransactionalOperator::transactional)
+                        .thenReturn(Anime.builder()
+                                .id(id)
+                                .name(animePostRequestBody.getName())
+                                .version(0)
+                                .build()))
+                .doOnNext(savedAnime -> animeChangeHooks.saved(Map.of(savedAnime.getId(), savedAnime.getName())));
+    }
+
+    public Mono<List<BatchItemResult>> saveAll(Iterator<AnimePostRequestBody> animePostRequestBodies) {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<AnimePostRequestBody> validAnimes = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        int index = 0;
+        while (animePostRequestBodies.hasNext()) {
+            AnimePostRequestBody animePostRequestBody = animePostRequestBodies.next();
+            String violations = AnimeService.violations(validator, animePostRequestBody);
+            if (violations != null) {
+                results.add(AnimeService.invalid(index, violations));
+            } else {
+                validAnimes.add(animePostRequestBody);
+                validIndexes.add(index);
+                results.add(null);
+            }
+            index++;
+        }
+        if (validAnimes.isEmpty()) {
+            return Mono.just(results);
+        }
+
+        return Flux.fromIterable(validAnimes)
+                .concatMap(animePostRequestBody -> reactiveAnimeRepository.nextId())
+                .collectList()
+                .flatMap(ids -> {
+                    Map<Long, String> savedNames = new LinkedHashMap<>();
+                    for (int i = 0; i < ids.size(); i++) {
+                        savedNames.put(ids.get(i), validAnimes.get(i).getName());
+                        results.set(validIndexes.get(i), AnimeService.created(validIndexes.get(i), ids.get(i)));
+                    }
+                    return Flux.fromIterable(batches(savedNames, devDojoProperties.getBatch().getSize()))
+                            .concatMap(reactiveAnimeRepository::insertAll)
+                            .then(incrementRevision())
+                            .as(reactiveTransactionalOperator::transactional)
+                            .then(Mono.fromRunnable(() -> animeChangeHooks.saved(savedNames)))
+                            .thenReturn(results);
+                });
+    }
+
+    public Mono<BulkOperationResponse> replaceAll(List<AnimePutRequestBody> animePutRequestBodies) {
+        return Mono.defer(() -> {
+            Map<Long, String> namesById = AnimeService.namesById(animePutRequestBodies);
+            List<Long> missingIds = new ArrayList<>();
+            int chunkSize = devDojoProperties.getBatch().getChunkSize();
+            return Flux.fromIterable(AnimeService.chunks(namesById.keySet(), chunkSize))
+                    .concatMap(chunk -> {
+                        Map<Long, String> chunkNames = new LinkedHashMap<>();
+                        chunk.forEach(id -> chunkNames.put(id, namesById.get(id)));
+                        return reactiveAnimeRepository.updateNames(chunkNames)
+                                .flatMap(updated -> updated == chunk.size() ? Mono.just(updated)
+                                        : reactiveAnimeRepository.findExistingIds(chunk)
+                                                .collectList()
+                                                .doOnNext(existingIds -> missingIds.addAll(
+                                                        AnimeService.missingIds(chunk, existingIds)))
+                                                .thenReturn(updated));
+                    })
+                    .reduce(0, Integer::sum)
+                    .flatMap(affected -> affected > 0 ? incrementRevision().thenReturn(affected) : Mono.just(affected))
+                    .as(reactiveTransactionalOperator::transactional)
+                    .map(affected -> {
+                        missingIds.forEach(namesById::remove);
+                        animeChangeHooks.replaced(namesById);
+                        return BulkOperationResponse.builder()
+                                .affected(affected)
+                                .missingIds(missingIds)
+                                .build();
+                    });
+        });
+    }
+
+    public Mono<BulkOperationResponse> deleteAll(List<Long> ids) {
+        if (ids.contains(null)) {
+            return Mono.error(new BadRequestException("The anime ids cannot be null"));
+        }
+        return Mono.defer(() -> {
+            SortedSet<Long> uniqueIds = new TreeSet<>(ids);
+            List<Long> missingIds = new ArrayList<>();
+            List<Long> deletedIds = new ArrayList<>();
+            int chunkSize = devDojoProperties.getBatch().getChunkSize();
+            return Flux.fromIterable(AnimeService.chunks(uniqueIds, chunkSize))
+                    .concatMap(chunk -> reactiveAnimeRepository.findExistingIds(chunk)
+                            .collectList()
+                            .flatMap(existingIds -> {
+                                missingIds.addAll(AnimeService.missingIds(chunk, existingIds));
+                                if (existingIds.isEmpty()) {
+                                    return Mono.just(0);
+                                }
+                                deletedIds.addAll(existingIds);
+                                return reactiveAnimeRepository.deleteByIds(existingIds);
+                            }))
+                    .reduce(0, Integer::sum)
+                    .flatMap(affected -> affected > 0 ? incrementRevision().thenReturn(affected) : Mono.just(affected))
+                    .as(reactiveTransactionalOperator::transactional)
+                    .map(affected -> {
+                        animeChangeHooks.deleted(deletedIds);
+                        return BulkOperationResponse.builder()
+                                .affected(affected)
+                                .missingIds(missingIds)
+                                .build();
+                    });
+        });
+    }
+
+    public Mono<Void> delete(long id) {
+        return reactiveAnimeRepository.deleteByIds(List.of(id))
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.<Integer>error(new BadRequestException("Anime not found"))
+                        : incrementRevision())
+                .as(reactiveTransactionalOperator::transactional)
+                .then(Mono.fromRunnable(() -> animeChangeHooks.deleted(List.of(id))));
+    }
+
+    public Mono<Void> replace(AnimePutRequestBody animePutRequestBody, String ifMatch) {
+        return Mono.defer(() -> {
+            Integer expectedVersion = AnimeService.expectedVersion(animePutRequestBody, ifMatch);
+            long id = animePutRequestBody.getId();
+            String name = animePutRequestBody.getName();
+            Mono<Integer> update = expectedVersion == null
+                    ? reactiveAnimeRepository.updateName(id, name)
+                    : reactiveAnimeRepository.updateNameIfVersion(id, name, expectedVersion);
+            Mono<Integer> replaced = update.flatMap(updated -> {
+                if (updated > 0) {
+                    return incrementRevision();
+                }
+                if (AnimeService.matchesAnyVersion(ifMatch)) {
+                    return Mono.<Integer>error(AnimeService.anyVersionMissing());
+                }
+                return reactiveAnimeRepository.findVersionById(id)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .<Integer>flatMap(currentVersion -> Mono.error(AnimeService.versionMismatch(currentVersion)));
+            });
+            return replaced.as(reactiveTransactionalOperator::transactional)
+                    .then(Mono.fromRunnable(() -> animeChangeHooks.replaced(Map.of(id, name))));
+        });
+    }
+
+    private Mono<Integer> incrementRevision() {
+        return reactiveAnimeRepository.incrementRevision(AnimeChangeCounter.currentSecond());
+    }
+
+    private Mono<Long> cachedCount() {
+        OptionalLong count = animeCountCache.getIfPresent();
+        if (count.isPresent()) {
+            return Mono.just(count.getAsLong());
+        }
+        return reactiveAnimeRepository.count().doOnNext(animeCountCache::set);
+    }
+
+    private static List<Map<Long, String>> batches(Map<Long, String> namesById, int batchSize) {
+        List<Map<Long, String>> batches = new ArrayList<>();
+        Map<Long, String> batch = new LinkedHashMap<>();
+        for (Map.Entry<Long, String> nameById : namesById.entrySet()) {
+            batch.put(nameById.getKey(), nameById.getValue());
+            if (batch.size() == batchSize) {
+                batches.add(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private static AnimeLookupResponse lookupResponse(Set<Long> requestedIds, Map<Long, Anime> animesById) {
+        List<Anime> animes = new ArrayList<>(animesById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Anime anime = animesById.get(id);
+            if (anime != null) {
+                animes.add(anime);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return AnimeLookupResponse.builder()
+                .animes(animes)
+                .missingIds(missingIds)
+                .build();
+    }
+}
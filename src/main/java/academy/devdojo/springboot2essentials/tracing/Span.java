@@ -0,0 +1,17 @@
+package academy.devdojo.springboot2essentials.tracing;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class Span {
+    long traceId;
+    long spanId;
+    long parentSpanId;
+    String layer;
+    String name;
+    long startEpochMillis;
+    long durationMicros;
+    boolean error;
+}
@@ -0,0 +1,41 @@
+package academy.devdojo.springboot2essentials.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// keeps the latest spans only, writers never wait for each other or for a reader and old spans are overwritten
+public class SpanRingBuffer {
+    private final AtomicReferenceArray<Span> spans;
+    private final AtomicLong next = new AtomicLong();
+    private final int mask;
+
+    public SpanRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.spans = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void add(Span span) {
+        spans.set((int) (next.getAndIncrement() & mask), span);
+    }
+
+    // oldest first, a span written while copying may already replace one of the oldest
+    public List<Span> snapshot() {
+        long end = next.get();
+        long start = Math.max(0, end - spans.length());
+        List<Span> snapshot = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Span span = spans.get((int) (sequence & mask));
+            if (span != null) {
+                snapshot.add(span);
+            }
+        }
+        return snapshot;
+    }
+
+    public int capacity() {
+        return spans.length();
+    }
+}
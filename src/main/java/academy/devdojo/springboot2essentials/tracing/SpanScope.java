@@ -0,0 +1,87 @@
+package academy.devdojo.springboot2essentials.tracing;
+
+import java.util.concurrent.TimeUnit;
+
+public class SpanScope implements AutoCloseable {
+    // returned for requests that were not sampled, so tracing them costs a thread local lookup and nothing else
+    static final SpanScope NOOP = new SpanScope();
+
+    private final Tracer tracer;
+    private final Tracer.Trace trace;
+    private final long spanId;
+    private final long parentSpanId;
+    private final String layer;
+    private final long startEpochMillis;
+    private final long startNanos;
+    private String name;
+    private boolean error;
+    private boolean closed;
+
+    private SpanScope() {
+        this.tracer = null;
+        this.trace = null;
+        this.spanId = 0;
+        this.parentSpanId = 0;
+        this.layer = null;
+        this.startEpochMillis = 0;
+        this.startNanos = 0;
+        this.closed = true;
+    }
+
+    SpanScope(Tracer tracer, Tracer.Trace trace, String layer, String name) {
+        this.tracer = tracer;
+        this.trace = trace;
+        this.spanId = tracer.nextId();
+        this.parentSpanId = trace.currentSpanId;
+        this.layer = layer;
+        this.name = name;
+        this.startEpochMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        trace.currentSpanId = spanId;
+    }
+
+    public boolean isSampled() {
+        return tracer != null;
+    }
+
+    public long getTraceId() {
+        return trace == null ? 0 : trace.traceId;
+    }
+
+    // the root span only learns the matched route once the request was handled
+    public void rename(String name) {
+        if (!closed) {
+            this.name = name;
+        }
+    }
+
+    public void markError() {
+        if (!closed) {
+            this.error = true;
+        }
+    }
+
+    public long elapsedMicros() {
+        return isSampled() ? TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos) : 0;
+    }
+
+    // closing twice is harmless, the security span is closed by whichever filter gets there first
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        trace.currentSpanId = parentSpanId;
+        tracer.record(Span.builder()
+                .traceId(trace.traceId)
+                .spanId(spanId)
+                .parentSpanId(parentSpanId)
+                .layer(layer)
+                .name(name)
+                .startEpochMillis(startEpochMillis)
+                .durationMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos))
+                .error(error)
+                .build());
+    }
+}
@@ -0,0 +1,67 @@
+package academy.devdojo.springboot2essentials.tracing;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+
+@Component
+public class Tracer {
+    private final ThreadLocal<Trace> currentTrace = new ThreadLocal<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final SpanRingBuffer spanRingBuffer;
+    private final double sampleRate;
+
+    public Tracer(DevDojoProperties devDojoProperties) {
+        DevDojoProperties.Tracing properties = devDojoProperties.getTracing();
+        this.spanRingBuffer = new SpanRingBuffer(properties.getBufferSize());
+        this.sampleRate = properties.getSampleRate();
+    }
+
+    // the sampling decision is taken once per request, the spans below it are only recorded for a sampled trace
+    public SpanScope beginTrace(String layer, String name) {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return SpanScope.NOOP;
+        }
+        Trace trace = new Trace(ids.incrementAndGet());
+        currentTrace.set(trace);
+        return new SpanScope(this, trace, layer, name);
+    }
+
+    public void endTrace() {
+        currentTrace.remove();
+    }
+
+    public boolean isSampling() {
+        return currentTrace.get() != null;
+    }
+
+    public SpanScope start(String layer, String name) {
+        Trace trace = currentTrace.get();
+        return trace == null ? SpanScope.NOOP : new SpanScope(this, trace, layer, name);
+    }
+
+    public List<Span> recentSpans() {
+        return spanRingBuffer.snapshot();
+    }
+
+    long nextId() {
+        return ids.incrementAndGet();
+    }
+
+    void record(Span span) {
+        spanRingBuffer.add(span);
+    }
+
+    static class Trace {
+        final long traceId;
+        long currentSpanId;
+
+        Trace(long traceId) {
+            this.traceId = traceId;
+        }
+    }
+}
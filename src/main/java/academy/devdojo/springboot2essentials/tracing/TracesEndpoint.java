@@ -0,0 +1,21 @@
+package academy.devdojo.springboot2essentials.tracing;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@Endpoint(id = "traces")
+@RequiredArgsConstructor
+public class TracesEndpoint {
+    private final Tracer tracer;
+
+    @ReadOperation
+    public List<Span> traces() {
+        return tracer.recentSpans();
+    }
+}
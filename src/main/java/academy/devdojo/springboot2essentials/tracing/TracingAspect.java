@@ -0,0 +1,54 @@
+package academy.devdojo.springboot2essentials.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+@Aspect
+@Component
+// inside MethodTimingAspect, both still wrap the transaction
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class TracingAspect {
+    private final Tracer tracer;
+
+    @Around("execution(public * academy.devdojo.springboot2essentials.controller.AnimeController.*(..))")
+    public Object traceAnimeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("controller", "AnimeController", joinPoint);
+    }
+
+    @Around("execution(public * academy.devdojo.springboot2essentials.service.AnimeService.*(..))")
+    public Object traceAnimeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("service", "AnimeService", joinPoint);
+    }
+
+    @Around("execution(* *(..)) && this(academy.devdojo.springboot2essentials.repository.AnimeRepository)")
+    public Object traceAnimeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("repository", "AnimeRepository", joinPoint);
+    }
+
+    @Around("execution(* *(..)) && this(academy.devdojo.springboot2essentials.repository.DevDojoUserRepository)")
+    public Object traceDevDojoUserRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("repository", "DevDojoUserRepository", joinPoint);
+    }
+
+    private Object trace(String layer, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        // checked first so requests that were not sampled do not even build the span name
+        if (!tracer.isSampling()) {
+            return joinPoint.proceed();
+        }
+        try (SpanScope span = tracer.start(layer, className + "." + joinPoint.getSignature().getName())) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable t) {
+                span.markError();
+                throw t;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package academy.devdojo.springboot2essentials.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+public final class GrantedAuthorities {
+    private static final int MAX_INTERNED = 1024;
+    private static final Map<String, Set<GrantedAuthority>> AUTHORITY_SETS = new ConcurrentHashMap<>();
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    public static Set<GrantedAuthority> parse(String authorities) {
+        if (authorities == null) {
+            return Collections.emptySet();
+        }
+        Set<GrantedAuthority> grantedAuthorities = AUTHORITY_SETS.get(authorities);
+        if (grantedAuthorities != null) {
+            return grantedAuthorities;
+        }
+
+        grantedAuthorities = Arrays.stream(authorities.split(","))
+                .map(String::trim)
+                .filter(authority -> !authority.isEmpty())
+                .map(GrantedAuthorities::intern)
+                .collect(Collectors.collectingAndThen(Collectors.toCollection(LinkedHashSet::new),
+                        Collections::unmodifiableSet));
+        if (AUTHORITY_SETS.size() < MAX_INTERNED) {
+            Set<GrantedAuthority> previous = AUTHORITY_SETS.putIfAbsent(authorities, grantedAuthorities);
+            return previous != null ? previous : grantedAuthorities;
+        }
+        return grantedAuthorities;
+    }
+
+    private static GrantedAuthority intern(String authority) {
+        if (AUTHORITIES.size() >= MAX_INTERNED) {
+            GrantedAuthority interned = AUTHORITIES.get(authority);
+            return interned != null ? interned : new SimpleGrantedAuthority(authority);
+        }
+        return AUTHORITIES.computeIfAbsent(authority, SimpleGrantedAuthority::new);
+    }
+}
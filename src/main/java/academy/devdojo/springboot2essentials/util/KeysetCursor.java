@@ -0,0 +1,40 @@
+package academy.devdojo.springboot2essentials.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import academy.devdojo.springboot2essentials.exception.BadRequestException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class KeysetCursor {
+    private static final char SEPARATOR = ':';
+
+    private final long id;
+    private final String name;
+
+    public static KeysetCursor of(long id, String name) {
+        return new KeysetCursor(id, name);
+    }
+
+    public String encode() {
+        String raw = name == null ? Long.toString(id) : id + String.valueOf(SEPARATOR) + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return new KeysetCursor(Long.parseLong(raw), null);
+            }
+            return new KeysetCursor(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
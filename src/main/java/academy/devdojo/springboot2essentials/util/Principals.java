@@ -0,0 +1,22 @@
+package academy.devdojo.springboot2essentials.util;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import academy.devdojo.springboot2essentials.domain.DevDojoUser;
+
+public final class Principals {
+
+    private Principals() {
+    }
+
+    // what may be logged about a principal: the database id, or the username of the in-memory users which have none
+    public static Object id(UserDetails userDetails) {
+        if (userDetails == null) {
+            return null;
+        }
+        if (userDetails instanceof DevDojoUser) {
+            return ((DevDojoUser) userDetails).getId();
+        }
+        return userDetails.getUsername();
+    }
+}
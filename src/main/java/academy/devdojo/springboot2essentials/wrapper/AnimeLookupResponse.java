@@ -0,0 +1,18 @@
+package academy.devdojo.springboot2essentials.wrapper;
+
+import java.util.List;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeLookupResponse {
+    private List<Anime> animes;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,17 @@
+package academy.devdojo.springboot2essentials.wrapper;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkOperationResponse {
+    private int affected;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,33 @@
+package academy.devdojo.springboot2essentials.wrapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheRegionStatistics {
+    private String name;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private double hitRate;
+
+    public static CacheRegionStatistics of(String name, long size,
+            org.hibernate.stat.CacheRegionStatistics statistics) {
+        long hitCount = statistics.getHitCount();
+        long requestCount = hitCount + statistics.getMissCount();
+        return CacheRegionStatistics.builder()
+                .name(name)
+                .size(size)
+                .hitCount(hitCount)
+                .missCount(statistics.getMissCount())
+                .putCount(statistics.getPutCount())
+                .hitRate(requestCount == 0 ? 1.0 : (double) hitCount / requestCount)
+                .build();
+    }
+}
@@ -16,6 +16,9 @@ import lombok.Setter;
 
 @Getter
 @Setter
+// the server also sends fields like "empty" that are derived from the ones below, a plain CBOR or Smile mapper
+// must not fail on them either
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class PageableResponse<T> extends PageImpl<T> {
     private boolean first;
     private boolean last;
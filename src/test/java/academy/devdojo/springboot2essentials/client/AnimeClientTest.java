@@ -0,0 +1,135 @@
+package academy.devdojo.springboot2essentials.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.match.MockRestRequestMatchers;
+import org.springframework.test.web.client.response.MockRestResponseCreators;
+import org.springframework.web.client.RestTemplate;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.util.AnimeCreator;
+import academy.devdojo.springboot2essentials.util.AnimePutRequestBodyCreator;
+import academy.devdojo.springboot2essentials.wrapper.PageableResponse;
+
+@DisplayName("Tests for AnimeClient")
+public class AnimeClientTest {
+
+    private AnimeClient animeClient;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplateBuilder().rootUri("http://localhost:8080").build();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        animeClient = new AnimeClient(restTemplate, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("findById returns anime when successful")
+    void findById_ReturnsAnime_WhenSuccessful() {
+        server.expect(MockRestRequestMatchers.requestTo("http://localhost:8080/animes/1"))
+                .andExpect(MockRestRequestMatchers.method(HttpMethod.GET))
+                .andRespond(MockRestResponseCreators.withSuccess("{\"id\":1,\"name\":\"Hajime no Ippo\"}",
+                        MediaType.APPLICATION_JSON));
+
+        Anime anime = animeClient.findById(1);
+
+        Assertions.assertThat(anime).isEqualTo(AnimeCreator.createValidAnime());
+
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("list asks for CBOR and decodes the CBOR page when the format is CBOR")
+    void list_DecodesCborPage_WhenFormatIsCbor() throws Exception {
+        RestTemplate restTemplate = AnimeClient.configure(new RestTemplateBuilder(),
+                AnimeClientConfig.builder().format(AnimeClientFormat.CBOR).build(), new ObjectMapper())
+                .rootUri("http://localhost:8080")
+                .build();
+        MockRestServiceServer cborServer = MockRestServiceServer.bindTo(restTemplate).build();
+        AnimeClient cborClient = new AnimeClient(restTemplate, new ObjectMapper());
+        byte[] page = new ObjectMapper(new CBORFactory()).writeValueAsBytes(
+                new PageImpl<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 1), 3));
+
+        cborServer.expect(MockRestRequestMatchers.requestTo("http://localhost:8080/animes?page=0&size=1"))
+                .andExpect(MockRestRequestMatchers.header(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.9"))
+                .andRespond(MockRestResponseCreators.withSuccess(page, MediaType.APPLICATION_CBOR));
+
+        PageableResponse<Anime> animePage = cborClient.list(0, 1);
+
+        Assertions.assertThat(animePage.getContent()).containsExactly(AnimeCreator.createValidAnime());
+
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(3);
+
+        cborServer.verify();
+    }
+
+    @Test
+    @DisplayName("pages requests every page until the last one")
+    void pages_RequestsEveryPage_UntilLastPage() {
+        server.expect(MockRestRequestMatchers.requestTo("http://localhost:8080/animes?page=0&size=1"))
+                .andRespond(MockRestResponseCreators.withSuccess(page(0, false), MediaType.APPLICATION_JSON));
+        server.expect(MockRestRequestMatchers.requestTo("http://localhost:8080/animes?page=1&size=1"))
+                .andRespond(MockRestResponseCreators.withSuccess(page(1, true), MediaType.APPLICATION_JSON));
+
+        List<PageableResponse<Anime>> pages = animeClient.pages(1).collect(Collectors.toList());
+
+        Assertions.assertThat(pages).hasSize(2);
+
+        Assertions.assertThat(pages.get(1).isLast()).isTrue();
+
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("forEach reads every anime from the ndjson stream")
+    void forEach_ReadsEveryAnime_WhenSuccessful() {
+        server.expect(MockRestRequestMatchers.requestTo("http://localhost:8080/animes/all"))
+                .andExpect(MockRestRequestMatchers.header(HttpHeaders.ACCEPT, "application/x-ndjson"))
+                .andRespond(MockRestResponseCreators.withSuccess(
+                        "{\"id\":1,\"name\":\"Hajime no Ippo\"}\n{\"id\":2,\"name\":\"Naruto\"}\n",
+                        MediaType.parseMediaType("application/x-ndjson")));
+
+        List<Anime> animes = new ArrayList<>();
+        animeClient.forEach(animes::add);
+
+        Assertions.assertThat(animes)
+                .extracting(Anime::getName)
+                .containsExactly("Hajime no Ippo", "Naruto");
+    }
+
+    @Test
+    @DisplayName("replace sends the expected version as If-Match")
+    void replace_SendsIfMatch_WhenVersionIsGiven() {
+        server.expect(MockRestRequestMatchers.requestTo("http://localhost:8080/animes"))
+                .andExpect(MockRestRequestMatchers.method(HttpMethod.PUT))
+                .andExpect(MockRestRequestMatchers.header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andRespond(MockRestResponseCreators.withNoContent());
+
+        animeClient.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), 3);
+
+        server.verify();
+    }
+
+    private static String page(int number, boolean last) {
+        return "{\"content\":[{\"id\":" + (number + 1) + ",\"name\":\"Anime\"}],\"number\":" + number
+                + ",\"size\":1,\"totalElements\":2,\"totalPages\":2,\"numberOfElements\":1,\"first\":"
+                + (number == 0) + ",\"last\":" + last + "}";
+    }
+}
@@ -0,0 +1,291 @@
+package academy.devdojo.springboot2essentials.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+
+@DisplayName("Tests for AsyncAnimeClient")
+public class AsyncAnimeClientTest {
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger compressedCborResponses = new AtomicInteger();
+    private final AtomicInteger maxBatchQueryLength = new AtomicInteger();
+    private final Set<Long> missingIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean batchLookupSupported;
+    private volatile String retryAfter;
+
+    private HttpServer server;
+    private AsyncAnimeClient asyncAnimeClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/animes", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.start();
+
+        asyncAnimeClient = new AsyncAnimeClient(AnimeClientConfig.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .maxConcurrentRequests(MAX_CONCURRENT_REQUESTS)
+                .retryBackoff(Duration.ofMillis(1))
+                .batchLookupSize(20)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("findById returns anime when successful")
+    void findById_ReturnsAnime_WhenSuccessful() {
+        Anime anime = asyncAnimeClient.findById(1).join();
+
+        Assertions.assertThat(anime.getId()).isEqualTo(1L);
+
+        Assertions.assertThat(anime.getName()).isEqualTo("Anime 1");
+    }
+
+    @Test
+    @DisplayName("findById decodes gzip-compressed CBOR when the client prefers CBOR")
+    void findById_DecodesCompressedCbor_WhenFormatIsCbor() {
+        AsyncAnimeClient cborClient = new AsyncAnimeClient(AnimeClientConfig.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .format(AnimeClientFormat.CBOR)
+                .build());
+
+        Anime anime = cborClient.findById(1).join();
+
+        Assertions.assertThat(anime.getName()).isEqualTo("Anime 1");
+
+        Assertions.assertThat(compressedCborResponses.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findById retries GETs that failed with 503")
+    void findById_RetriesRequest_WhenServerIsUnavailable() {
+        failuresBeforeSuccess.set(2);
+
+        Anime anime = asyncAnimeClient.findById(1).join();
+
+        Assertions.assertThat(anime.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("findById releases its permit while it waits out the retry backoff")
+    void findById_LetsOtherRequestsRun_WhenRetryIsBackingOff() {
+        AsyncAnimeClient singleConnectionClient = new AsyncAnimeClient(AnimeClientConfig.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .maxConcurrentRequests(1)
+                .build());
+        failuresBeforeSuccess.set(1);
+        retryAfter = "1";
+
+        CompletableFuture<Anime> retried = singleConnectionClient.findById(1);
+        while (requests.get() == 0) {
+            Thread.onSpinWait();
+        }
+        Anime anime = singleConnectionClient.findById(2).orTimeout(500, TimeUnit.MILLISECONDS).join();
+
+        Assertions.assertThat(anime.getId()).isEqualTo(2L);
+
+        Assertions.assertThat(retried).isNotDone();
+
+        Assertions.assertThat(retried.orTimeout(10, TimeUnit.SECONDS).join().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("findById fails fast when too many requests are already waiting for a permit")
+    void findById_ThrowsRejectedExecutionException_WhenWaitQueueIsFull() {
+        AsyncAnimeClient boundedClient = new AsyncAnimeClient(AnimeClientConfig.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .maxConcurrentRequests(1)
+                .maxQueuedRequests(1)
+                .build());
+
+        CompletableFuture<Anime> running = boundedClient.findById(1);
+        CompletableFuture<Anime> waiting = boundedClient.findById(2);
+        CompletableFuture<Anime> rejected = boundedClient.findById(3);
+
+        Assertions.assertThatThrownBy(rejected::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+
+        Assertions.assertThat(running.orTimeout(10, TimeUnit.SECONDS).join().getId()).isEqualTo(1L);
+
+        Assertions.assertThat(waiting.orTimeout(10, TimeUnit.SECONDS).join().getId()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("getMany looks animes up in batches of ids when the server supports it")
+    void getMany_ReturnsAnimesInRequestedOrder_WhenBatchLookupIsSupported() {
+        batchLookupSupported = true;
+        missingIds.add(7L);
+        List<Long> ids = LongStream.rangeClosed(1, 50).map(id -> 51 - id).boxed().collect(Collectors.toList());
+
+        AnimeLookupResponse response = asyncAnimeClient.getMany(ids).orTimeout(10, TimeUnit.SECONDS).join();
+
+        Assertions.assertThat(response.getAnimes())
+                .extracting(Anime::getId)
+                .containsExactlyElementsOf(ids.stream().filter(id -> id != 7L).collect(Collectors.toList()));
+
+        Assertions.assertThat(response.getMissingIds()).containsExactly(7L);
+
+        Assertions.assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("getMany splits a batch before its ids outgrow a URL-safe query string")
+    void getMany_KeepsQueryStringShort_WhenIdsAreLong() {
+        batchLookupSupported = true;
+        AsyncAnimeClient largeBatchClient = new AsyncAnimeClient(AnimeClientConfig.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .batchLookupSize(500)
+                .build());
+        List<Long> ids = LongStream.range(0, 500).map(id -> 1_000_000_000_000L + id).boxed()
+                .collect(Collectors.toList());
+
+        AnimeLookupResponse response = largeBatchClient.getMany(ids).orTimeout(10, TimeUnit.SECONDS).join();
+
+        Assertions.assertThat(response.getAnimes())
+                .extracting(Anime::getId)
+                .containsExactlyElementsOf(ids);
+
+        Assertions.assertThat(requests.get()).isGreaterThan(1);
+
+        Assertions.assertThat(maxBatchQueryLength.get())
+                .isLessThanOrEqualTo("ids=".length() + AsyncAnimeClient.MAX_BATCH_QUERY_LENGTH);
+    }
+
+    @Test
+    @DisplayName("getMany falls back to one request per id, keeps the requested order, reports missing ids and bounds concurrency")
+    void getMany_ReturnsAnimesInRequestedOrder_WhenSomeAnimesAreMissing() {
+        missingIds.add(7L);
+        List<Long> ids = LongStream.rangeClosed(1, 50).map(id -> 51 - id).boxed().collect(Collectors.toList());
+
+        AnimeLookupResponse response = asyncAnimeClient.getMany(ids).orTimeout(10, TimeUnit.SECONDS).join();
+
+        Assertions.assertThat(response.getAnimes())
+                .extracting(Anime::getId)
+                .containsExactlyElementsOf(ids.stream().filter(id -> id != 7L).collect(Collectors.toList()));
+
+        Assertions.assertThat(response.getMissingIds()).containsExactly(7L);
+
+        Assertions.assertThat(maxInFlight.get()).isLessThanOrEqualTo(MAX_CONCURRENT_REQUESTS);
+
+        requests.set(0);
+        asyncAnimeClient.getMany(ids).orTimeout(10, TimeUnit.SECONDS).join();
+
+        Assertions.assertThat(requests.get()).isEqualTo(ids.size());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null) {
+            handleBatch(exchange, query);
+            return;
+        }
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        long id = Long.parseLong(exchange.getRequestURI().getPath().substring("/animes/".length()));
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // leave the in-flight count before answering, the client starts its next request as soon as it reads this one
+        inFlight.decrementAndGet();
+        if (failuresBeforeSuccess.getAndUpdate(failures -> Math.max(0, failures - 1)) > 0) {
+            if (retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter);
+            }
+            respond(exchange, 503, "{}");
+        } else if (missingIds.contains(id)) {
+            respond(exchange, 400, "{\"details\":\"Anime not found\"}");
+        } else {
+            respond(exchange, 200, "{\"id\":" + id + ",\"name\":\"Anime " + id + "\"}");
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange, String query) throws IOException {
+        if (!batchLookupSupported) {
+            respond(exchange, 404, "{}");
+            return;
+        }
+        maxBatchQueryLength.accumulateAndGet(query.length(), Math::max);
+        List<Long> ids = Arrays.stream(query.substring("ids=".length()).split(","))
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+        String animes = ids.stream()
+                .filter(id -> !missingIds.contains(id))
+                .map(id -> "{\"id\":" + id + ",\"name\":\"Anime " + id + "\"}")
+                .collect(Collectors.joining(","));
+        String missing = ids.stream()
+                .filter(missingIds::contains)
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        respond(exchange, 200, "{\"animes\":[" + animes + "],\"missingIds\":[" + missing + "]}");
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        boolean cbor = accept != null && accept.startsWith("application/cbor");
+        if (cbor) {
+            bytes = CBOR.writeValueAsBytes(JSON.readTree(bytes));
+        }
+        exchange.getResponseHeaders().add("Content-Type", cbor ? "application/cbor" : "application/json");
+        if ("gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            if (cbor) {
+                compressedCborResponses.incrementAndGet();
+            }
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
@@ -1,7 +1,16 @@
 package academy.devdojo.springboot2essentials.controller;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,18 +21,31 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.exception.BadRequestException;
 import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.request.CountMode;
 import academy.devdojo.springboot2essentials.service.AnimeService;
 import academy.devdojo.springboot2essentials.util.AnimeCreator;
 import academy.devdojo.springboot2essentials.util.AnimePostRequestBodyCreator;
 import academy.devdojo.springboot2essentials.util.AnimePutRequestBodyCreator;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSuggestion;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
+import academy.devdojo.springboot2essentials.wrapper.BatchItemResult;
+import academy.devdojo.springboot2essentials.wrapper.BulkOperationResponse;
+import academy.devdojo.springboot2essentials.wrapper.KeysetResponse;
 
 @ExtendWith(SpringExtension.class)
 public class AnimeControllerTest {
@@ -32,6 +54,12 @@ public class AnimeControllerTest {
     private AnimeController animeController;
     @Mock
     private AnimeService animeServiceMock;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private MappingJackson2CborHttpMessageConverter cborConverter = new MappingJackson2CborHttpMessageConverter();
+    @Spy
+    private MappingJackson2SmileHttpMessageConverter smileConverter = new MappingJackson2SmileHttpMessageConverter();
 
     @BeforeEach
     void setUp() {
@@ -40,18 +68,73 @@ public class AnimeControllerTest {
         BDDMockito.when(animeServiceMock.listAll(ArgumentMatchers.any()))
                 .thenReturn(animePage);
 
+        KeysetResponse<Anime> keysetPage = KeysetResponse.<Anime>builder()
+                .content(List.of(AnimeCreator.createValidAnime()))
+                .size(1)
+                .numberOfElements(1)
+                .build();
+
+        BDDMockito.when(animeServiceMock.listAfter(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.anyString()))
+                .thenReturn(keysetPage);
+
+        BDDMockito.when(animeServiceMock.listSummaries(ArgumentMatchers.any()))
+                .thenReturn(new PageImpl<>(List.of(AnimeCreator.createValidAnimeSummary())));
+
+        BDDMockito.when(animeServiceMock.listAllSummariesNonPageable())
+                .thenReturn(List.of(AnimeCreator.createValidAnimeSummary()));
+
         BDDMockito.when(animeServiceMock.listAllNonPageable())
                 .thenReturn(List.of(AnimeCreator.createValidAnime()));
 
+        BDDMockito.doAnswer(invocation -> {
+            Consumer<Anime> consumer = invocation.getArgument(0);
+            consumer.accept(AnimeCreator.createValidAnime());
+            return null;
+        }).when(animeServiceMock).streamAll(ArgumentMatchers.any());
+
         BDDMockito.when(animeServiceMock.findByIdOrThrowBadRequestException(ArgumentMatchers.anyLong()))
                 .thenReturn(AnimeCreator.createValidAnime());
 
         BDDMockito.when(animeServiceMock.findByName(ArgumentMatchers.anyString()))
                 .thenReturn(List.of(AnimeCreator.createValidAnime()));
 
+        BDDMockito.when(animeServiceMock.findAllById(ArgumentMatchers.anyList()))
+                .thenReturn(AnimeLookupResponse.builder()
+                        .animes(List.of(AnimeCreator.createValidAnime()))
+                        .missingIds(List.of(2L))
+                        .build());
+
+        BDDMockito.when(animeServiceMock.suggest(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+                .thenReturn(List.of(AnimeSuggestion.builder()
+                        .id(AnimeCreator.createValidAnime().getId())
+                        .name(AnimeCreator.createValidAnime().getName())
+                        .score(1)
+                        .build()));
+
+        BDDMockito.when(animeServiceMock.findByPrefix(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(animePage);
+
         BDDMockito.when(animeServiceMock.save(ArgumentMatchers.any(AnimePostRequestBody.class)))
                 .thenReturn(AnimeCreator.createValidAnime());
 
+        BDDMockito.when(animeServiceMock.saveAll(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    List<BatchItemResult> results = new ArrayList<>();
+                    Iterator<AnimePostRequestBody> animes = invocation.getArgument(0);
+                    while (animes.hasNext()) {
+                        animes.next();
+                        results.add(BatchItemResult.builder().index(results.size()).status(201).id(1L).build());
+                    }
+                    return results;
+                });
+
+        BDDMockito.when(animeServiceMock.replaceAll(ArgumentMatchers.anyList()))
+                .thenReturn(BulkOperationResponse.builder().affected(1).missingIds(List.of()).build());
+
+        BDDMockito.when(animeServiceMock.deleteAll(ArgumentMatchers.anyList()))
+                .thenReturn(BulkOperationResponse.builder().affected(1).missingIds(List.of(2L)).build());
+
         BDDMockito.doNothing().when(animeServiceMock).delete(ArgumentMatchers.anyLong());
 
     }
@@ -73,11 +156,71 @@ public class AnimeControllerTest {
     }
 
     @Test
-    @DisplayName("listAll returns list of anime when successful")
-    void list_ReturnsListOfAnimes_WhenSuccessful() {
+    @DisplayName("listSummaries returns page of anime summaries when successful")
+    void listSummaries_ReturnsPageOfAnimeSummaries_WhenSuccessful() {
+        Page<AnimeSummary> summaryPage = animeController.listSummaries(null).getBody();
+
+        Assertions.assertThat(summaryPage).isNotNull();
+
+        Assertions.assertThat(summaryPage.toList()).containsExactly(AnimeCreator.createValidAnimeSummary());
+    }
+
+    @Test
+    @DisplayName("listAllSummaries returns list of anime summaries when successful")
+    void listAllSummaries_ReturnsListOfAnimeSummaries_WhenSuccessful() {
+        List<AnimeSummary> summaries = animeController.listAllSummaries().getBody();
+
+        Assertions.assertThat(summaries).containsExactly(AnimeCreator.createValidAnimeSummary());
+    }
+
+    @Test
+    @DisplayName("listWithCount returns slice of anime when count is none")
+    void listWithCount_ReturnsSliceOfAnimes_WhenCountIsNone() {
+        BDDMockito.when(animeServiceMock.listAll(ArgumentMatchers.any(), ArgumentMatchers.eq(CountMode.NONE)))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime())));
+
+        Slice<Anime> animeSlice = animeController.listWithCount(null, "none").getBody();
+
+        Assertions.assertThat(animeSlice).isNotNull();
+
+        Assertions.assertThat(animeSlice.getContent())
+                .hasSize(1)
+                .contains(AnimeCreator.createValidAnime());
+    }
+
+    @Test
+    @DisplayName("listWithCount throws BadRequestException when count mode is unknown")
+    void listWithCount_ThrowsBadRequestException_WhenCountIsUnknown() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeController.listWithCount(null, "sometimes"));
+    }
+
+    @Test
+    @DisplayName("listAfter returns list of anime inside keyset object when successful")
+    void listAfter_ReturnsListOfAnimesInsideKeysetObject_WhenSuccessful() {
         String expectedName = AnimeCreator.createValidAnime().getName();
 
-        List<Anime> animes = animeController.listAll().getBody();
+        KeysetResponse<Anime> keysetPage = animeController.listAfter("", 1, "id").getBody();
+
+        Assertions.assertThat(keysetPage).isNotNull();
+
+        Assertions.assertThat(keysetPage.getContent())
+                .isNotEmpty()
+                .hasSize(1);
+
+        Assertions.assertThat(keysetPage.getContent().get(0).getName()).isEqualTo(expectedName);
+    }
+
+    @Test
+    @DisplayName("listAll streams list of anime when successful")
+    void list_ReturnsListOfAnimes_WhenSuccessful() throws Exception {
+        String expectedName = AnimeCreator.createValidAnime().getName();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        animeController.listAll().getBody().writeTo(outputStream);
+
+        List<Anime> animes = objectMapper.readValue(outputStream.toByteArray(), new TypeReference<List<Anime>>() {
+        });
 
         Assertions.assertThat(animes)
                 .isNotNull()
@@ -87,6 +230,65 @@ public class AnimeControllerTest {
         Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listAll leaves the array unterminated when streaming fails midway")
+    void listAll_LeavesArrayOpen_WhenStreamingFails() {
+        BDDMockito.doAnswer(invocation -> {
+            Consumer<Anime> consumer = invocation.getArgument(0);
+            consumer.accept(AnimeCreator.createValidAnime());
+            throw new IllegalStateException("connection lost");
+        }).when(animeServiceMock).streamAll(ArgumentMatchers.any());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        Assertions.assertThatThrownBy(() -> animeController.listAll().getBody().writeTo(outputStream))
+                .isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThat(outputStream.toString(StandardCharsets.UTF_8))
+                .startsWith("[{")
+                .doesNotEndWith("]");
+    }
+
+    @Test
+    @DisplayName("listAllAsCbor streams a CBOR array of anime when successful")
+    void listAllAsCbor_StreamsCborArrayOfAnimes_WhenSuccessful() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        animeController.listAllAsCbor().getBody().writeTo(outputStream);
+
+        List<Anime> animes = cborConverter.getObjectMapper().readValue(outputStream.toByteArray(),
+                new TypeReference<List<Anime>>() {
+                });
+
+        Assertions.assertThat(animes).containsExactly(AnimeCreator.createValidAnime());
+    }
+
+    @Test
+    @DisplayName("listAllAsSmile streams a Smile array of anime when successful")
+    void listAllAsSmile_StreamsSmileArrayOfAnimes_WhenSuccessful() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        animeController.listAllAsSmile().getBody().writeTo(outputStream);
+
+        List<Anime> animes = smileConverter.getObjectMapper().readValue(outputStream.toByteArray(),
+                new TypeReference<List<Anime>>() {
+                });
+
+        Assertions.assertThat(animes).containsExactly(AnimeCreator.createValidAnime());
+    }
+
+    @Test
+    @DisplayName("listAllAsNdjson streams one anime per line when successful")
+    void listAllAsNdjson_StreamsOneAnimePerLine_WhenSuccessful() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        animeController.listAllAsNdjson().getBody().writeTo(outputStream);
+
+        String[] lines = outputStream.toString("UTF-8").split("\n");
+
+        Assertions.assertThat(lines).hasSize(1);
+
+        Assertions.assertThat(objectMapper.readValue(lines[0], Anime.class))
+                .isEqualTo(AnimeCreator.createValidAnime());
+    }
+
     @Test
     @DisplayName("findById returns anime when successful")
     void findById_ReturnsListOfAnimes_WhenSuccessful() {
@@ -114,6 +316,23 @@ public class AnimeControllerTest {
         Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("findAllById returns the found animes and the missing ids when successful")
+    void findAllById_ReturnsAnimesAndMissingIds_WhenSuccessful() {
+        Long expectedId = AnimeCreator.createValidAnime().getId();
+
+        AnimeLookupResponse response = animeController.findAllById(List.of(expectedId, 2L)).getBody();
+
+        Assertions.assertThat(response).isNotNull();
+
+        Assertions.assertThat(response.getAnimes())
+                .hasSize(1)
+                .extracting(Anime::getId)
+                .containsExactly(expectedId);
+
+        Assertions.assertThat(response.getMissingIds()).containsExactly(2L);
+    }
+
     @Test
     @DisplayName("findByName returns an empty list of anime when anime is not found")
     void findByName_ReturnsEmptyListOfAnimes_WhenAnimeIsNotFound() {
@@ -128,6 +347,36 @@ public class AnimeControllerTest {
 
     }
 
+    @Test
+    @DisplayName("suggest returns list of suggestions when successful")
+    void suggest_ReturnsListOfSuggestions_WhenSuccessful() {
+        String expectedName = AnimeCreator.createValidAnime().getName();
+
+        List<AnimeSuggestion> suggestions = animeController.suggest("hajme", 10).getBody();
+
+        Assertions.assertThat(suggestions)
+                .isNotNull()
+                .hasSize(1);
+
+        Assertions.assertThat(suggestions.get(0).getName()).isEqualTo(expectedName);
+    }
+
+    @Test
+    @DisplayName("findByPrefix returns page of anime when successful")
+    void findByPrefix_ReturnsPageOfAnimes_WhenSuccessful() {
+        String expectedName = AnimeCreator.createValidAnime().getName();
+
+        Page<Anime> animePage = animeController.findByPrefix("Haj", null).getBody();
+
+        Assertions.assertThat(animePage).isNotNull();
+
+        Assertions.assertThat(animePage.toList())
+                .isNotEmpty()
+                .hasSize(1);
+
+        Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
+    }
+
     @Test
     @DisplayName("save returns anime when successful")
     void save_ReturnsAnimes_WhenSuccessful() {
@@ -138,14 +387,49 @@ public class AnimeControllerTest {
 
     }
 
+    @Test
+    @DisplayName("saveAll returns one result per anime when successful")
+    void saveAll_ReturnsOneResultPerAnime_WhenSuccessful() {
+        List<BatchItemResult> results = animeController.saveAll(List.of(
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                AnimePostRequestBodyCreator.createAnimePostRequestBody())).getBody();
+
+        Assertions.assertThat(results)
+                .isNotNull()
+                .hasSize(2);
+    }
+
+    @Test
+    @DisplayName("saveAllFromNdjson returns one result per line when successful")
+    void saveAllFromNdjson_ReturnsOneResultPerLine_WhenSuccessful() throws Exception {
+        String ndjson = "{\"name\":\"Berserk\"}\n{\"name\":\"Akira\"}\n";
+
+        List<BatchItemResult> results = animeController
+                .saveAllFromNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))).getBody();
+
+        Assertions.assertThat(results)
+                .isNotNull()
+                .hasSize(2);
+    }
+
+    @Test
+    @DisplayName("saveAllFromNdjson throws BadRequestException when a line is not valid JSON")
+    void saveAllFromNdjson_ThrowsBadRequestException_WhenLineIsInvalid() {
+        String ndjson = "{\"name\":\"Berserk\"}\n{name\n";
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeController
+                        .saveAllFromNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))));
+    }
+
     @Test
     @DisplayName("replace updates anime when successful")
     void replace_UpdatesAnimes_WhenSuccessful() {
 
-        Assertions.assertThatCode(() -> animeController.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()))
+        Assertions.assertThatCode(() -> animeController.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), null))
                 .doesNotThrowAnyException();
 
-        ResponseEntity<Void> entity = animeController.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody());
+        ResponseEntity<Void> entity = animeController.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), null);
 
         Assertions.assertThat(entity).isNotNull();
 
@@ -153,6 +437,31 @@ public class AnimeControllerTest {
 
     }
 
+    @Test
+    @DisplayName("replaceAll returns affected rows when successful")
+    void replaceAll_ReturnsAffectedRows_WhenSuccessful() {
+        ResponseEntity<BulkOperationResponse> entity = animeController
+                .replaceAll(List.of(AnimePutRequestBodyCreator.createAnimePutRequestBody()));
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        Assertions.assertThat(entity.getBody()).isNotNull();
+
+        Assertions.assertThat(entity.getBody().getAffected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deleteAll returns affected rows and missing ids when successful")
+    void deleteAll_ReturnsAffectedRowsAndMissingIds_WhenSuccessful() {
+        BulkOperationResponse response = animeController.deleteAll(List.of(1L, 2L)).getBody();
+
+        Assertions.assertThat(response).isNotNull();
+
+        Assertions.assertThat(response.getAffected()).isEqualTo(1);
+
+        Assertions.assertThat(response.getMissingIds()).containsExactly(2L);
+    }
+
     @Test
     @DisplayName("delete removes anime when successful")
     void delete_RemovesAnimes_WhenSuccessful() {
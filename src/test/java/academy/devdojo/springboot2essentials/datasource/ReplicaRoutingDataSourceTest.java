@@ -0,0 +1,81 @@
+package academy.devdojo.springboot2essentials.datasource;
+
+import java.time.Duration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+import academy.devdojo.springboot2essentials.datasource.ReplicaRoutingDataSource.Route;
+
+@DisplayName("Tests for ReplicaRoutingDataSource")
+public class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        DevDojoProperties devDojoProperties = new DevDojoProperties();
+        devDojoProperties.getReplica().setReadYourWritesWindow(Duration.ofHours(1));
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(new SimpleDriverDataSource(),
+                new SimpleDriverDataSource(), new ReadYourWritesTracker(devDojoProperties), () -> {});
+        authenticateAs("devdojo");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("determineCurrentLookupKey routes read-only transactions to the replica")
+    void determineCurrentLookupKey_ReturnsReplica_WhenTransactionIsReadOnly() {
+        beginTransaction(true);
+
+        Assertions.assertThat(replicaRoutingDataSource.determineCurrentLookupKey()).isEqualTo(Route.REPLICA);
+    }
+
+    @Test
+    @DisplayName("determineCurrentLookupKey routes read-write transactions and non-transactional work to the primary")
+    void determineCurrentLookupKey_ReturnsPrimary_WhenTransactionIsNotReadOnly() {
+        Assertions.assertThat(replicaRoutingDataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+
+        beginTransaction(false);
+
+        Assertions.assertThat(replicaRoutingDataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("determineCurrentLookupKey keeps a client's reads on the primary right after its own write")
+    void determineCurrentLookupKey_ReturnsPrimary_WhenClientWroteRecently() {
+        beginTransaction(false);
+        replicaRoutingDataSource.determineCurrentLookupKey();
+
+        beginTransaction(true);
+
+        Assertions.assertThat(replicaRoutingDataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+
+        authenticateAs("igor");
+
+        Assertions.assertThat(replicaRoutingDataSource.determineCurrentLookupKey()).isEqualTo(Route.REPLICA);
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void authenticateAs(String username) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(username, "academy"));
+    }
+}
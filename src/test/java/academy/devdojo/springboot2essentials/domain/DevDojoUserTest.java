@@ -0,0 +1,59 @@
+package academy.devdojo.springboot2essentials.domain;
+
+import java.util.Collection;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+@DisplayName("Tests for DevDojoUser")
+public class DevDojoUserTest {
+
+    @Test
+    @DisplayName("getAuthorities returns every comma separated authority when successful")
+    void getAuthorities_ReturnsEveryAuthority_WhenSuccessful() {
+        DevDojoUser devDojoUser = DevDojoUser.builder().authorities("ROLE_USER, ROLE_ADMIN").build();
+
+        Assertions.assertThat(devDojoUser.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("getAuthorities returns the same immutable collection on every call")
+    @SuppressWarnings("unchecked")
+    void getAuthorities_ReturnsSameImmutableCollection_WhenCalledRepeatedly() {
+        DevDojoUser devDojoUser = DevDojoUser.builder().authorities("ROLE_USER").build();
+        DevDojoUser otherUser = DevDojoUser.builder().authorities("ROLE_USER").build();
+
+        Assertions.assertThat(devDojoUser.getAuthorities())
+                .isSameAs(devDojoUser.getAuthorities())
+                .isSameAs(otherUser.getAuthorities());
+
+        Assertions.assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> ((Collection<GrantedAuthority>) devDojoUser.getAuthorities())
+                        .add(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @Test
+    @DisplayName("getAuthorities returns an empty collection when authorities are null")
+    void getAuthorities_ReturnsEmptyCollection_WhenAuthoritiesAreNull() {
+        Assertions.assertThat(new DevDojoUser().getAuthorities()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("toString leaves out the password hash")
+    void toString_LeavesOutPassword_WhenPasswordIsSet() {
+        DevDojoUser devDojoUser = DevDojoUser.builder()
+                .username("devdojo")
+                .password("{bcrypt}$2a$10$q1OPl/nVTyRFlgQXTA.y4.VpqCw8mvg8wSEAeQzLriV65v8W5eDeK")
+                .build();
+
+        Assertions.assertThat(devDojoUser.toString())
+                .contains("devdojo")
+                .doesNotContain("password")
+                .doesNotContain("$2a$10$");
+    }
+}
@@ -0,0 +1,141 @@
+package academy.devdojo.springboot2essentials.handler;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import academy.devdojo.springboot2essentials.cache.AnimeChangeCounter;
+import academy.devdojo.springboot2essentials.domain.AnimeRevision;
+
+@ExtendWith(SpringExtension.class)
+@DisplayName("Tests for AnimeConditionalRequestInterceptor")
+public class AnimeConditionalRequestInterceptorTest {
+    private static final long MODIFIED_AT = 1_600_000_000_000L;
+
+    @Mock
+    private AnimeChangeCounter animeChangeCounterMock;
+    private AnimeConditionalRequestInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.when(animeChangeCounterMock.current()).thenReturn(Optional.of(revision(1)));
+        interceptor = new AnimeConditionalRequestInterceptor(animeChangeCounterMock);
+    }
+
+    @Test
+    @DisplayName("preHandle lets the request through and sets an ETag when there is no validator")
+    void preHandle_ReturnsTrueAndSetsEtag_WhenRequestHasNoValidator() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean proceed = interceptor.preHandle(new MockHttpServletRequest("GET", "/animes/find"), response, null);
+
+        Assertions.assertThat(proceed).isTrue();
+
+        Assertions.assertThat(response.getHeader(HttpHeaders.ETAG)).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("preHandle answers 304 without reaching the controller when the ETag matches")
+    void preHandle_ReturnsFalseWithNotModified_WhenEtagMatches() {
+        String etag = etag(new MockHttpServletRequest("GET", "/animes/all"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/all");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean proceed = interceptor.preHandle(request, response, null);
+
+        Assertions.assertThat(proceed).isFalse();
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    @Test
+    @DisplayName("preHandle lets the request through when animes changed since the ETag was issued")
+    void preHandle_ReturnsTrue_WhenAnimesChanged() {
+        String etag = etag(new MockHttpServletRequest("GET", "/animes/find"));
+
+        BDDMockito.when(animeChangeCounterMock.current()).thenReturn(Optional.of(revision(2)));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/find");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        Assertions.assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("preHandle sends the change time of the persisted revision as Last-Modified")
+    void preHandle_SetsLastModifiedOfRevision_WhenMethodIsGet() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/animes/find"), response, null);
+
+        Assertions.assertThat(response.getDateHeader(HttpHeaders.LAST_MODIFIED)).isEqualTo(MODIFIED_AT);
+    }
+
+    @Test
+    @DisplayName("preHandle lets the request through without an ETag when there is no revision row")
+    void preHandle_ReturnsTrueWithoutEtag_WhenRevisionIsMissing() {
+        BDDMockito.when(animeChangeCounterMock.current()).thenReturn(Optional.empty());
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/all");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Assertions.assertThat(interceptor.preHandle(request, response, null)).isTrue();
+
+        Assertions.assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    @Test
+    @DisplayName("preHandle issues different ETags for different Accept headers")
+    void preHandle_IssuesDifferentEtags_WhenAcceptDiffers() {
+        MockHttpServletRequest json = new MockHttpServletRequest("GET", "/animes/all");
+        json.addHeader(HttpHeaders.ACCEPT, "application/json");
+        MockHttpServletRequest ndjson = new MockHttpServletRequest("GET", "/animes/all");
+        ndjson.addHeader(HttpHeaders.ACCEPT, "application/x-ndjson");
+
+        Assertions.assertThat(etag(json)).isNotEqualTo(etag(ndjson));
+    }
+
+    @Test
+    @DisplayName("preHandle issues weak ETags so compressed responses can share them")
+    void preHandle_IssuesWeakEtag_WhenMethodIsGet() {
+        Assertions.assertThat(etag(new MockHttpServletRequest("GET", "/animes/all"))).startsWith("W/\"");
+    }
+
+    @Test
+    @DisplayName("preHandle ignores requests that are not GET or HEAD")
+    void preHandle_ReturnsTrueWithoutEtag_WhenMethodIsNotGet() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Assertions.assertThat(interceptor.preHandle(new MockHttpServletRequest("PUT", "/animes"), response, null))
+                .isTrue();
+
+        Assertions.assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    private String etag(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        return response.getHeader(HttpHeaders.ETAG);
+    }
+
+    private static AnimeRevision revision(long revision) {
+        return AnimeRevision.builder()
+                .id(AnimeRevision.ID)
+                .revision(revision)
+                .modifiedAt(MODIFIED_AT)
+                .build();
+    }
+}
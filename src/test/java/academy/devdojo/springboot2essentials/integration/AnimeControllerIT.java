@@ -1,6 +1,19 @@
 package academy.devdojo.springboot2essentials.integration;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -11,25 +24,35 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.domain.AnimeRevision;
 import academy.devdojo.springboot2essentials.domain.DevDojoUser;
 import academy.devdojo.springboot2essentials.repository.AnimeRepository;
+import academy.devdojo.springboot2essentials.repository.AnimeRevisionRepository;
 import academy.devdojo.springboot2essentials.repository.DevDojoUserRepository;
 import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
 import academy.devdojo.springboot2essentials.util.AnimeCreator;
 import academy.devdojo.springboot2essentials.util.AnimePostRequestBodyCreator;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
+import academy.devdojo.springboot2essentials.wrapper.BatchItemResult;
 import academy.devdojo.springboot2essentials.wrapper.PageableResponse;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -46,6 +69,12 @@ class AnimeControllerIT {
         private AnimeRepository animeRepository;
         @Autowired
         private DevDojoUserRepository devDojoUserRepository;
+        @Autowired
+        private AnimeRevisionRepository animeRevisionRepository;
+        @Autowired
+        private TransactionTemplate transactionTemplate;
+        @LocalServerPort
+        private int port;
 
         private static final DevDojoUser USER = DevDojoUser.builder()
                         .name("DevDojo Academy")
@@ -144,6 +173,210 @@ class AnimeControllerIT {
                 Assertions.assertThat(anime.getId()).isNotNull().isEqualTo(expectedId);
         }
 
+        @Test
+        @DisplayName("list returns a CBOR page of anime when the client accepts CBOR")
+        void list_ReturnsCborPage_WhenClientAcceptsCbor() {
+
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                devDojoUserRepository.save(USER);
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+
+                ResponseEntity<PageableResponse<Anime>> response = testRestTemplateRoleUser.exchange("/animes",
+                                HttpMethod.GET, new HttpEntity<>(headers),
+                                new ParameterizedTypeReference<PageableResponse<Anime>>() {
+
+                                });
+
+                Assertions.assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+
+                Assertions.assertThat(response.getBody()).isNotNull();
+
+                Assertions.assertThat(response.getBody().toList()).containsExactly(savedAnime);
+        }
+
+        @Test
+        @DisplayName("listAll streams gzip-compressed CBOR when the client accepts both")
+        void listAll_StreamsCompressedCbor_WhenClientAcceptsCborAndGzip() throws Exception {
+
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                devDojoUserRepository.save(USER);
+
+                // the JDK client leaves the body as it came over the wire
+                HttpResponse<byte[]> response = HttpClient.newHttpClient().send(HttpRequest
+                                .newBuilder(URI.create("http://localhost:" + port + "/animes/all"))
+                                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                                .header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder()
+                                                .encodeToString("devdojo:academy".getBytes(StandardCharsets.UTF_8)))
+                                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+                Assertions.assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+
+                Assertions.assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).contains("gzip");
+
+                try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+                        List<Anime> animes = new ObjectMapper(new CBORFactory()).readValue(body,
+                                        new TypeReference<List<Anime>>() {
+                                        });
+
+                        Assertions.assertThat(animes).containsExactly(savedAnime);
+                }
+        }
+
+        @Test
+        @DisplayName("listSummaries returns the id and name of every anime inside page object when successful")
+        void listSummaries_ReturnsAnimeSummariesInsidePageObject_WhenSuccessful() {
+
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                devDojoUserRepository.save(USER);
+
+                PageableResponse<AnimeSummary> summaryPage = testRestTemplateRoleUser.exchange("/animes/summaries",
+                                HttpMethod.GET, null, new ParameterizedTypeReference<PageableResponse<AnimeSummary>>() {
+
+                                }).getBody();
+
+                Assertions.assertThat(summaryPage).isNotNull();
+
+                Assertions.assertThat(summaryPage.toList())
+                                .containsExactly(new AnimeSummary(savedAnime.getId(), savedAnime.getName()));
+        }
+
+        @Test
+        @DisplayName("findAllById returns the found animes in the requested order and the missing ids")
+        void findAllById_ReturnsAnimesAndMissingIds_WhenSuccessful() {
+                Anime firstAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                Anime secondAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                devDojoUserRepository.save(USER);
+
+                long missingId = secondAnime.getId() + 1;
+
+                AnimeLookupResponse response = testRestTemplateRoleUser.getForObject("/animes?ids={ids}",
+                                AnimeLookupResponse.class,
+                                secondAnime.getId() + "," + missingId + "," + firstAnime.getId());
+
+                Assertions.assertThat(response).isNotNull();
+
+                Assertions.assertThat(response.getAnimes())
+                                .extracting(Anime::getId)
+                                .containsExactly(secondAnime.getId(), firstAnime.getId());
+
+                Assertions.assertThat(response.getMissingIds()).containsExactly(missingId);
+        }
+
+        @Test
+        @DisplayName("findById returns 304 when If-None-Match carries the current ETag")
+        void findById_Returns304_WhenEtagMatches() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                devDojoUserRepository.save(USER);
+
+                ResponseEntity<Anime> firstResponse = testRestTemplateRoleUser.getForEntity("/animes/{id}",
+                                Anime.class, savedAnime.getId());
+
+                String etag = firstResponse.getHeaders().getETag();
+
+                Assertions.assertThat(etag).isNotBlank();
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setIfNoneMatch(etag);
+
+                ResponseEntity<Anime> conditionalResponse = testRestTemplateRoleUser.exchange("/animes/{id}",
+                                HttpMethod.GET, new HttpEntity<>(headers), Anime.class, savedAnime.getId());
+
+                Assertions.assertThat(conditionalResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+                Assertions.assertThat(conditionalResponse.getBody()).isNull();
+        }
+
+        @Test
+        @DisplayName("findById returns 200 with a new ETag when the anime changed after the ETag was issued")
+        void findById_Returns200_WhenAnimeChangedSinceEtag() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                devDojoUserRepository.save(USER);
+
+                String etag = testRestTemplateRoleUser.getForEntity("/animes/{id}", Anime.class, savedAnime.getId())
+                                .getHeaders().getETag();
+
+                testRestTemplateRoleUser.put("/animes", AnimePutRequestBody.builder()
+                                .id(savedAnime.getId())
+                                .name("new name")
+                                .build());
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setIfNoneMatch(etag);
+
+                ResponseEntity<Anime> conditionalResponse = testRestTemplateRoleUser.exchange("/animes/{id}",
+                                HttpMethod.GET, new HttpEntity<>(headers), Anime.class, savedAnime.getId());
+
+                Assertions.assertThat(conditionalResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+                Assertions.assertThat(conditionalResponse.getHeaders().getETag()).isNotEqualTo(etag);
+        }
+
+        @Test
+        @DisplayName("listAll returns 304 until another instance commits a change to the animes")
+        void listAll_Returns200_WhenAnimesChangedOnAnotherInstance() {
+                animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                devDojoUserRepository.save(USER);
+
+                String etag = testRestTemplateRoleUser.getForEntity("/animes/all", String.class).getHeaders()
+                                .getETag();
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setIfNoneMatch(etag);
+
+                ResponseEntity<String> notModifiedResponse = testRestTemplateRoleUser.exchange("/animes/all",
+                                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+                Assertions.assertThat(notModifiedResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+                // all another instance shares with this one is the database, its writes only bump the revision row
+                transactionTemplate.executeWithoutResult(status -> animeRevisionRepository.increment(AnimeRevision.ID,
+                                System.currentTimeMillis()));
+
+                ResponseEntity<String> changedResponse = testRestTemplateRoleUser.exchange("/animes/all",
+                                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+                Assertions.assertThat(changedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+                Assertions.assertThat(changedResponse.getHeaders().getETag()).isNotEqualTo(etag);
+        }
+
+        @Test
+        @DisplayName("findById returns the anime version as a strong ETag that replace accepts in If-Match")
+        void findById_ReturnsStrongVersionEtag_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                devDojoUserRepository.save(USER);
+
+                String etag = testRestTemplateRoleUser.getForEntity("/animes/{id}", Anime.class, savedAnime.getId())
+                                .getHeaders().getETag();
+
+                Assertions.assertThat(etag).isEqualTo("\"" + savedAnime.getVersion() + "\"");
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setIfMatch(etag);
+
+                AnimePutRequestBody animePutRequestBody = AnimePutRequestBody.builder()
+                                .id(savedAnime.getId())
+                                .name("new name")
+                                .build();
+
+                ResponseEntity<Void> animeResponseEntity = testRestTemplateRoleUser.exchange("/animes", HttpMethod.PUT,
+                                new HttpEntity<>(animePutRequestBody, headers),
+                                Void.class);
+
+                Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        }
+
         @Test
         @DisplayName("findByName returns anime when successful")
         void findByName_ReturnsListOfAnimes_WhenSuccessful() {
@@ -204,6 +437,31 @@ class AnimeControllerIT {
 
         }
 
+        @Test
+        @DisplayName("saveAll saves valid animes and reports invalid ones")
+        void saveAll_SavesValidAnimesAndReportsInvalidOnes_WhenSuccessful() {
+                devDojoUserRepository.save(USER);
+
+                List<AnimePostRequestBody> animes = List.of(
+                                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                                new AnimePostRequestBody(""),
+                                AnimePostRequestBodyCreator.createAnimePostRequestBody());
+
+                List<BatchItemResult> results = testRestTemplateRoleUser.exchange("/animes/batch", HttpMethod.POST,
+                                new HttpEntity<>(animes),
+                                new ParameterizedTypeReference<List<BatchItemResult>>() {
+                                }).getBody();
+
+                Assertions.assertThat(results)
+                                .isNotNull()
+                                .extracting(BatchItemResult::getStatus)
+                                .containsExactly(201, 400, 201);
+
+                Assertions.assertThat(animeRepository.findById(results.get(2).getId())).isPresent();
+
+                Assertions.assertThat(animeRepository.count()).isEqualTo(2);
+        }
+
         @Test
         @DisplayName("replace updates anime when successful")
         void replace_UpdatesAnimes_WhenSuccessful() {
@@ -224,6 +482,54 @@ class AnimeControllerIT {
 
         }
 
+        @Test
+        @DisplayName("replace returns 412 when If-Match carries a stale version")
+        void replace_Returns412_WhenIfMatchVersionIsStale() {
+
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                devDojoUserRepository.save(USER);
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setIfMatch("\"" + (savedAnime.getVersion() + 1) + "\"");
+
+                AnimePutRequestBody animePutRequestBody = AnimePutRequestBody.builder()
+                                .id(savedAnime.getId())
+                                .name("new name")
+                                .build();
+
+                ResponseEntity<Void> animeResponseEntity = testRestTemplateRoleUser.exchange("/animes", HttpMethod.PUT,
+                                new HttpEntity<>(animePutRequestBody, headers),
+                                Void.class);
+
+                Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+                Assertions.assertThat(animeRepository.findById(savedAnime.getId()))
+                                .map(Anime::getName)
+                                .contains(savedAnime.getName());
+        }
+
+        @Test
+        @DisplayName("replace returns 412 when If-Match is * and the anime does not exist")
+        void replace_Returns412_WhenIfMatchIsWildcardAndAnimeDoesNotExist() {
+
+                devDojoUserRepository.save(USER);
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setIfMatch("*");
+
+                AnimePutRequestBody animePutRequestBody = AnimePutRequestBody.builder()
+                                .id(1000L)
+                                .name("new name")
+                                .build();
+
+                ResponseEntity<Void> animeResponseEntity = testRestTemplateRoleUser.exchange("/animes", HttpMethod.PUT,
+                                new HttpEntity<>(animePutRequestBody, headers),
+                                Void.class);
+
+                Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        }
+
         @Test
         @DisplayName("delete removes anime when successful")
         void delete_RemovesAnimes_WhenSuccessful() {
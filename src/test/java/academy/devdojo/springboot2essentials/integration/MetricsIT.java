@@ -0,0 +1,57 @@
+package academy.devdojo.springboot2essentials.integration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.repository.AnimeRepository;
+import academy.devdojo.springboot2essentials.util.AnimeCreator;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@AutoConfigureMetrics
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+class MetricsIT {
+        @Autowired
+        private TestRestTemplate testRestTemplate;
+        @Autowired
+        private AnimeRepository animeRepository;
+
+        @Test
+        @DisplayName("prometheus exposes service, repository, sql statement and connection pool metrics when successful")
+        void prometheus_ExposesAnimeMetrics_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                testRestTemplate.withBasicAuth("devdojo2", "academy")
+                                .getForEntity("/animes/{id}", Anime.class, savedAnime.getId());
+
+                ResponseEntity<String> prometheus = testRestTemplate.withBasicAuth("igor2", "academy")
+                                .getForEntity("/actuator/prometheus", String.class);
+
+                Assertions.assertThat(prometheus.getStatusCode()).isEqualTo(HttpStatus.OK);
+                Assertions.assertThat(prometheus.getBody())
+                                .contains("devdojo_service_seconds_bucket{class=\"AnimeService\","
+                                                + "method=\"findByIdOrThrowBadRequestException\"")
+                                .contains("devdojo_repository_seconds_count{class=\"AnimeRepository\",method=\"findById\"")
+                                .contains("devdojo_sql_statements_count{method=\"GET\",uri=\"/animes/{id}\"")
+                                .contains("hikaricp_connections_active");
+        }
+
+        @Test
+        @DisplayName("prometheus returns 403 when user is not admin")
+        void prometheus_Returns403_WhenUserIsNotAdmin() {
+                ResponseEntity<String> prometheus = testRestTemplate.withBasicAuth("devdojo2", "academy")
+                                .getForEntity("/actuator/prometheus", String.class);
+
+                Assertions.assertThat(prometheus.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        }
+}
@@ -0,0 +1,308 @@
+package academy.devdojo.springboot2essentials.integration;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunctions;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.domain.DevDojoUser;
+import academy.devdojo.springboot2essentials.exception.BadRequestExceptionDetails;
+import academy.devdojo.springboot2essentials.repository.AnimeRepository;
+import academy.devdojo.springboot2essentials.repository.DevDojoUserRepository;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.util.AnimeCreator;
+import academy.devdojo.springboot2essentials.util.AnimePostRequestBodyCreator;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+import academy.devdojo.springboot2essentials.wrapper.PageableResponse;
+
+// JPA and R2DBC must see the same in-memory database, so neither can use a generated embedded one
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+@ActiveProfiles("reactive")
+class ReactiveAnimeControllerIT {
+        private static final String PASSWORD = "{bcrypt}$2a$10$q1OPl/nVTyRFlgQXTA.y4.VpqCw8mvg8wSEAeQzLriV65v8W5eDeK";
+
+        @Autowired
+        private WebTestClient webTestClient;
+        @Autowired
+        private AnimeRepository animeRepository;
+        @Autowired
+        private DevDojoUserRepository devDojoUserRepository;
+
+        private WebTestClient webTestClientRoleUser;
+        private WebTestClient webTestClientRoleAdmin;
+
+        @BeforeEach
+        void setUp() {
+                // the context, and so the database, is shared by every test of this class
+                animeRepository.deleteAll();
+                devDojoUserRepository.deleteAll();
+                devDojoUserRepository.saveAll(List.of(
+                                DevDojoUser.builder()
+                                                .name("DevDojo Academy")
+                                                .password(PASSWORD)
+                                                .username("devdojo")
+                                                .authorities("ROLE_USER")
+                                                .build(),
+                                DevDojoUser.builder()
+                                                .name("Igor Cavalcante")
+                                                .password(PASSWORD)
+                                                .username("igor")
+                                                .authorities("ROLE_USER,ROLE_ADMIN")
+                                                .build()));
+
+                webTestClientRoleUser = webTestClient.mutate()
+                                .filter(ExchangeFilterFunctions.basicAuthentication("devdojo", "academy"))
+                                .build();
+                webTestClientRoleAdmin = webTestClient.mutate()
+                                .filter(ExchangeFilterFunctions.basicAuthentication("igor", "academy"))
+                                .build();
+        }
+
+        @Test
+        @DisplayName("list returns list of anime inside page object when successful")
+        void list_ReturnsListOfAnimesInsidePageObject_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                PageableResponse<Anime> animePage = webTestClientRoleUser.get()
+                                .uri("/animes")
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody(new ParameterizedTypeReference<PageableResponse<Anime>>() {
+                                })
+                                .returnResult()
+                                .getResponseBody();
+
+                Assertions.assertThat(animePage).isNotNull();
+
+                Assertions.assertThat(animePage.toList())
+                                .hasSize(1)
+                                .extracting(Anime::getName)
+                                .containsExactly(savedAnime.getName());
+
+                Assertions.assertThat(animePage.getTotalElements()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("findById returns anime when successful")
+        void findById_ReturnsAnime_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                Anime anime = webTestClientRoleUser.get()
+                                .uri("/animes/{id}", savedAnime.getId())
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody(Anime.class)
+                                .returnResult()
+                                .getResponseBody();
+
+                Assertions.assertThat(anime).isNotNull();
+
+                Assertions.assertThat(anime.getId()).isEqualTo(savedAnime.getId());
+
+                Assertions.assertThat(anime.getName()).isEqualTo(savedAnime.getName());
+        }
+
+        @Test
+        @DisplayName("findById returns CBOR when the client accepts CBOR")
+        void findById_ReturnsCbor_WhenClientAcceptsCbor() throws Exception {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                byte[] body = webTestClientRoleUser.get()
+                                .uri("/animes/{id}", savedAnime.getId())
+                                .accept(MediaType.APPLICATION_CBOR)
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                                .expectBody(byte[].class)
+                                .returnResult()
+                                .getResponseBody();
+
+                Assertions.assertThat(new ObjectMapper(new CBORFactory()).readValue(body, Anime.class))
+                                .isEqualTo(savedAnime);
+        }
+
+        @Test
+        @DisplayName("findById returns 400 with the same error body as the servlet stack when anime is not found")
+        void findById_ReturnsBadRequest_WhenAnimeIsNotFound() {
+                BadRequestExceptionDetails details = webTestClientRoleUser.get()
+                                .uri("/animes/{id}", 1)
+                                .exchange()
+                                .expectStatus().isBadRequest()
+                                .expectBody(BadRequestExceptionDetails.class)
+                                .returnResult()
+                                .getResponseBody();
+
+                Assertions.assertThat(details).isNotNull();
+
+                Assertions.assertThat(details.getDetails()).isEqualTo("Anime not found");
+        }
+
+        @Test
+        @DisplayName("findAllById returns the found animes in the requested order and the missing ids")
+        void findAllById_ReturnsAnimesAndMissingIds_WhenSuccessful() {
+                Anime firstAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                Anime secondAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                long missingId = secondAnime.getId() + 1;
+
+                AnimeLookupResponse response = webTestClientRoleUser.get()
+                                .uri("/animes?ids={ids}", secondAnime.getId() + "," + missingId + ","
+                                                + firstAnime.getId())
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody(AnimeLookupResponse.class)
+                                .returnResult()
+                                .getResponseBody();
+
+                Assertions.assertThat(response).isNotNull();
+
+                Assertions.assertThat(response.getAnimes())
+                                .extracting(Anime::getId)
+                                .containsExactly(secondAnime.getId(), firstAnime.getId());
+
+                Assertions.assertThat(response.getMissingIds()).containsExactly(missingId);
+        }
+
+        @Test
+        @DisplayName("findByPrefix treats LIKE wildcards in the prefix literally")
+        void findByPrefix_ReturnsOnlyLiteralMatches_WhenPrefixContainsWildcards() {
+                animeRepository.save(Anime.builder().name("100% Pascal-sensei").build());
+                animeRepository.save(Anime.builder().name("1000-nen").build());
+
+                PageableResponse<Anime> animePage = webTestClientRoleUser.get()
+                                .uri(uriBuilder -> uriBuilder.path("/animes/find")
+                                                .queryParam("prefix", "{prefix}")
+                                                .build("100%"))
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody(new ParameterizedTypeReference<PageableResponse<Anime>>() {
+                                })
+                                .returnResult()
+                                .getResponseBody();
+
+                Assertions.assertThat(animePage).isNotNull();
+
+                Assertions.assertThat(animePage.toList())
+                                .extracting(Anime::getName)
+                                .containsExactly("100% Pascal-sensei");
+        }
+
+        @Test
+        @DisplayName("save returns anime when successful and the anime can be read back")
+        void save_ReturnsAnime_WhenSuccessful() {
+                AnimePostRequestBody animePostRequestBody = AnimePostRequestBodyCreator.createAnimePostRequestBody();
+
+                Anime savedAnime = webTestClientRoleUser.post()
+                                .uri("/animes")
+                                .bodyValue(animePostRequestBody)
+                                .exchange()
+                                .expectStatus().isCreated()
+                                .expectBody(Anime.class)
+                                .returnResult()
+                                .getResponseBody();
+
+                Assertions.assertThat(savedAnime).isNotNull();
+
+                Assertions.assertThat(savedAnime.getId()).isNotNull();
+
+                webTestClientRoleUser.get()
+                                .uri("/animes/{id}", savedAnime.getId())
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody(Anime.class)
+                                .isEqualTo(savedAnime);
+        }
+
+        @Test
+        @DisplayName("delete returns 403 when user is not admin")
+        void delete_Returns403_WhenUserIsNotAdmin() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                webTestClientRoleUser.delete()
+                                .uri("/animes/admin/{id}", savedAnime.getId())
+                                .exchange()
+                                .expectStatus().isForbidden();
+
+                Assertions.assertThat(animeRepository.findById(savedAnime.getId())).isPresent();
+        }
+
+        @Test
+        @DisplayName("delete removes anime when user is admin")
+        void delete_RemovesAnime_WhenUserIsAdmin() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                webTestClientRoleAdmin.delete()
+                                .uri("/animes/admin/{id}", savedAnime.getId())
+                                .exchange()
+                                .expectStatus().isNoContent();
+
+                Assertions.assertThat(animeRepository.findById(savedAnime.getId())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("list returns 401 when there are no credentials")
+        void list_Returns401_WhenRequestIsAnonymous() {
+                webTestClient.get()
+                                .uri("/animes")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .exchange()
+                                .expectStatus().isUnauthorized();
+        }
+
+        @Test
+        @DisplayName("findById returns 304 when If-None-Match carries the current ETag")
+        void findById_Returns304_WhenEtagMatches() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                String etag = webTestClientRoleUser.get()
+                                .uri("/animes/{id}", savedAnime.getId())
+                                .exchange()
+                                .expectStatus().isOk()
+                                .returnResult(Anime.class)
+                                .getResponseHeaders()
+                                .getETag();
+
+                Assertions.assertThat(etag).isNotBlank();
+
+                webTestClientRoleUser.get()
+                                .uri("/animes/{id}", savedAnime.getId())
+                                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                                .exchange()
+                                .expectStatus().isEqualTo(HttpStatus.NOT_MODIFIED)
+                                .expectBody().isEmpty();
+        }
+
+        @Test
+        @DisplayName("findById returns the anime version as a strong ETag")
+        void findById_ReturnsStrongVersionEtag_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                webTestClientRoleUser.get()
+                                .uri("/animes/{id}", savedAnime.getId())
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + savedAnime.getVersion() + "\"");
+        }
+}
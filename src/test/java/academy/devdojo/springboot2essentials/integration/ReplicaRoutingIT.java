@@ -0,0 +1,153 @@
+package academy.devdojo.springboot2essentials.integration;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.repository.AnimeRepository;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+
+// two separate in-memory databases stand in for a primary and a replica that has not caught up yet
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "devdojo.replica.datasource.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "devdojo.replica.datasource.username=sa",
+        "devdojo.replica.datasource.password=",
+        "devdojo.replica.datasource.connection-init-sql=create table if not exists anime "
+                + "(id bigint not null primary key, name varchar(255), version integer default 0 not null)",
+        "devdojo.replica.read-your-writes-window=1h"
+})
+class ReplicaRoutingIT {
+        @Autowired
+        @Qualifier(value = "testRestTemplateRoleUser")
+        private TestRestTemplate testRestTemplateRoleUser;
+        @Autowired
+        @Qualifier(value = "testRestTemplateRoleAdmin")
+        private TestRestTemplate testRestTemplateRoleAdmin;
+        @Autowired
+        @Qualifier(value = "replicaDataSource")
+        private DataSource replicaDataSource;
+        @Autowired
+        private AnimeRepository animeRepository;
+
+        private Anime primaryAnime;
+
+        @TestConfiguration
+        @Lazy
+        static class Config {
+                @Bean(name = "testRestTemplateRoleUser")
+                public TestRestTemplate testRestTemplateRoleUserCreator(@Value("${local.server.port}") int port) {
+                        RestTemplateBuilder restTemplateBuilder = new RestTemplateBuilder()
+                                        .rootUri("http://localhost:" + port)
+                                        .basicAuthentication("devdojo2", "academy");
+
+                        return new TestRestTemplate(restTemplateBuilder);
+                }
+
+                @Bean(name = "testRestTemplateRoleAdmin")
+                public TestRestTemplate testRestTemplateRoleAdminCreator(@Value("${local.server.port}") int port) {
+                        RestTemplateBuilder restTemplateBuilder = new RestTemplateBuilder()
+                                        .rootUri("http://localhost:" + port)
+                                        .basicAuthentication("igor2", "academy");
+
+                        return new TestRestTemplate(restTemplateBuilder);
+                }
+        }
+
+        @BeforeEach
+        void setUp() {
+                animeRepository.deleteAll();
+                primaryAnime = animeRepository.save(Anime.builder().name("Only on the primary").build());
+
+                // the replica has not seen the primary's anime yet and still holds an older row under its id
+                JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+                replica.update("delete from anime");
+                replica.update("insert into anime (id, name, version) values (?, 'Stale on the replica', 0)",
+                                primaryAnime.getId());
+                replica.update("insert into anime (id, name, version) values (?, 'Only on the replica', 0)",
+                                primaryAnime.getId() + 1000);
+        }
+
+        @Test
+        @DisplayName("findByName reads from the replica when the client has not written")
+        void findByName_ReadsFromReplica_WhenClientHasNotWritten() {
+                Assertions.assertThat(findByName(testRestTemplateRoleAdmin, "Only on the replica")).hasSize(1);
+
+                Assertions.assertThat(findByName(testRestTemplateRoleAdmin, "Only on the primary")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("findByName reads the client's own write from the primary while other clients keep the replica")
+        void findByName_ReadsFromPrimary_WhenClientWroteRecently() {
+                ResponseEntity<Anime> savedAnime = testRestTemplateRoleUser.postForEntity("/animes",
+                                AnimePostRequestBody.builder().name("Written by devdojo2").build(), Anime.class);
+
+                Assertions.assertThat(savedAnime.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+                Assertions.assertThat(findByName(testRestTemplateRoleUser, "Written by devdojo2")).hasSize(1);
+
+                Assertions.assertThat(findByName(testRestTemplateRoleAdmin, "Written by devdojo2")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("findById caches the primary's row even when the client's reads go to a lagging replica")
+        void findById_ReturnsPrimaryRow_WhenReplicaIsStale() {
+                Assertions.assertThat(findByName(testRestTemplateRoleAdmin, "Stale on the replica")).hasSize(1);
+
+                Assertions.assertThat(findById(testRestTemplateRoleAdmin, primaryAnime.getId()).getName())
+                                .isEqualTo("Only on the primary");
+
+                Assertions.assertThat(findById(testRestTemplateRoleAdmin, primaryAnime.getId()).getName())
+                                .isEqualTo("Only on the primary");
+        }
+
+        @Test
+        @DisplayName("findById returns another client's write instead of caching the replica's stale row")
+        void findById_ReturnsWrittenName_WhenAnotherClientWroteAndReplicaLags() {
+                testRestTemplateRoleUser.put("/animes", AnimePutRequestBody.builder()
+                                .id(primaryAnime.getId())
+                                .name("Renamed by devdojo2")
+                                .build());
+
+                Assertions.assertThat(findByName(testRestTemplateRoleAdmin, "Renamed by devdojo2")).isEmpty();
+
+                Assertions.assertThat(findById(testRestTemplateRoleAdmin, primaryAnime.getId()).getName())
+                                .isEqualTo("Renamed by devdojo2");
+
+                Assertions.assertThat(findById(testRestTemplateRoleUser, primaryAnime.getId()).getName())
+                                .isEqualTo("Renamed by devdojo2");
+        }
+
+        private static Anime findById(TestRestTemplate testRestTemplate, long id) {
+                return testRestTemplate.getForObject("/animes/{id}", Anime.class, id);
+        }
+
+        private static List<Anime> findByName(TestRestTemplate testRestTemplate, String name) {
+                return testRestTemplate.exchange("/animes/find?name={name}", HttpMethod.GET, null,
+                                new ParameterizedTypeReference<List<Anime>>() {
+                                }, name).getBody();
+        }
+}
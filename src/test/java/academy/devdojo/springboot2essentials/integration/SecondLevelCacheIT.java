@@ -0,0 +1,246 @@
+package academy.devdojo.springboot2essentials.integration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import academy.devdojo.springboot2essentials.cache.SecondLevelCacheRegions;
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.domain.DevDojoUser;
+import academy.devdojo.springboot2essentials.repository.AnimeRepository;
+import academy.devdojo.springboot2essentials.repository.DevDojoUserRepository;
+import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+import academy.devdojo.springboot2essentials.service.AnimeService;
+import academy.devdojo.springboot2essentials.util.AnimeCreator;
+import academy.devdojo.springboot2essentials.util.AnimePostRequestBodyCreator;
+import academy.devdojo.springboot2essentials.wrapper.CacheRegionStatistics;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+class SecondLevelCacheIT {
+        @Autowired
+        private AnimeService animeService;
+        @Autowired
+        private AnimeRepository animeRepository;
+        @Autowired
+        private DevDojoUserRepository devDojoUserRepository;
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Test
+        @DisplayName("findById is served from the anime region when the anime was loaded before")
+        void findById_HitsAnimeRegion_WhenAnimeWasLoadedBefore() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                animeRepository.findById(savedAnime.getId());
+                long hitCount = regionStatistics(SecondLevelCacheRegions.ANIME).getHitCount();
+
+                Anime anime = animeRepository.findById(savedAnime.getId()).orElseThrow();
+
+                Assertions.assertThat(anime.getName()).isEqualTo(savedAnime.getName());
+                Assertions.assertThat(regionStatistics(SecondLevelCacheRegions.ANIME).getHitCount())
+                                .isEqualTo(hitCount + 1);
+        }
+
+        @Test
+        @DisplayName("replace invalidates the anime region when successful")
+        void replace_InvalidatesAnimeRegion_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                animeRepository.findById(savedAnime.getId());
+
+                animeService.replace(AnimePutRequestBody.builder()
+                                .id(savedAnime.getId())
+                                .name("Overlord")
+                                .build(), null);
+
+                Anime anime = animeRepository.findById(savedAnime.getId()).orElseThrow();
+                Assertions.assertThat(anime.getName()).isEqualTo("Overlord");
+                Assertions.assertThat(anime.getVersion()).isEqualTo(savedAnime.getVersion() + 1);
+        }
+
+        @Test
+        @DisplayName("replaceAll invalidates the anime region when successful")
+        void replaceAll_InvalidatesAnimeRegion_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                animeRepository.findById(savedAnime.getId());
+
+                animeService.replaceAll(List.of(AnimePutRequestBody.builder()
+                                .id(savedAnime.getId())
+                                .name("Overlord")
+                                .build()));
+
+                Assertions.assertThat(animeRepository.findById(savedAnime.getId()))
+                                .map(Anime::getName)
+                                .contains("Overlord");
+        }
+
+        @Test
+        @DisplayName("replace keeps the other animes in the anime region when successful")
+        void replace_KeepsOtherAnimesInAnimeRegion_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                Anime otherAnime = animeRepository.save(Anime.builder().name("Berserk").build());
+                animeRepository.findById(savedAnime.getId());
+                animeRepository.findById(otherAnime.getId());
+
+                animeService.replace(AnimePutRequestBody.builder()
+                                .id(savedAnime.getId())
+                                .name("Overlord")
+                                .build(), null);
+                long hitCount = regionStatistics(SecondLevelCacheRegions.ANIME).getHitCount();
+
+                Assertions.assertThat(animeRepository.findById(otherAnime.getId()))
+                                .map(Anime::getName)
+                                .contains("Berserk");
+                Assertions.assertThat(regionStatistics(SecondLevelCacheRegions.ANIME).getHitCount())
+                                .isEqualTo(hitCount + 1);
+        }
+
+        @Test
+        @DisplayName("replaceAll keeps the other animes in the anime region when successful")
+        void replaceAll_KeepsOtherAnimesInAnimeRegion_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                Anime otherAnime = animeRepository.save(Anime.builder().name("Berserk").build());
+                animeRepository.findById(savedAnime.getId());
+                animeRepository.findById(otherAnime.getId());
+
+                animeService.replaceAll(List.of(AnimePutRequestBody.builder()
+                                .id(savedAnime.getId())
+                                .name("Overlord")
+                                .build()));
+                long hitCount = regionStatistics(SecondLevelCacheRegions.ANIME).getHitCount();
+
+                Assertions.assertThat(animeRepository.findById(otherAnime.getId()))
+                                .map(Anime::getName)
+                                .contains("Berserk");
+                Assertions.assertThat(regionStatistics(SecondLevelCacheRegions.ANIME).getHitCount())
+                                .isEqualTo(hitCount + 1);
+        }
+
+        @Test
+        @DisplayName("streamAll leaves the anime region empty when the animes were not cached before")
+        void streamAll_DoesNotPutAnimesInAnimeRegion_WhenAnimesWereNotCached() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                entityManagerFactory.getCache().evictAll();
+                List<Anime> animes = new ArrayList<>();
+
+                animeService.streamAll(animes::add);
+
+                Assertions.assertThat(animes).extracting(Anime::getId).containsExactly(savedAnime.getId());
+                Assertions.assertThat(regionStatistics(SecondLevelCacheRegions.ANIME).getSize()).isZero();
+        }
+
+        @Test
+        @DisplayName("delete invalidates the anime region when successful")
+        void delete_InvalidatesAnimeRegion_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                animeRepository.findById(savedAnime.getId());
+
+                animeService.delete(savedAnime.getId());
+
+                Assertions.assertThat(animeRepository.findById(savedAnime.getId())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("deleteAll invalidates the anime region when successful")
+        void deleteAll_InvalidatesAnimeRegion_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                animeRepository.findById(savedAnime.getId());
+
+                animeService.deleteAll(List.of(savedAnime.getId()));
+
+                Assertions.assertThat(animeRepository.findById(savedAnime.getId())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("findByName is served from the anime query region when the query ran before")
+        void findByName_HitsAnimeQueryRegion_WhenQueryRanBefore() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                animeService.findByName(savedAnime.getName());
+                long hitCount = regionStatistics(SecondLevelCacheRegions.ANIME_QUERIES).getHitCount();
+
+                List<Anime> animes = animeService.findByName(savedAnime.getName());
+
+                Assertions.assertThat(animes).containsExactly(savedAnime);
+                Assertions.assertThat(regionStatistics(SecondLevelCacheRegions.ANIME_QUERIES).getHitCount())
+                                .isEqualTo(hitCount + 1);
+        }
+
+        @Test
+        @DisplayName("save invalidates the anime query region when successful")
+        void save_InvalidatesAnimeQueryRegion_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                animeService.findByName(savedAnime.getName());
+
+                animeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
+
+                Assertions.assertThat(animeService.findByName(savedAnime.getName())).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("replace invalidates the anime query region when successful")
+        void replace_InvalidatesAnimeQueryRegion_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                animeService.findByName(savedAnime.getName());
+
+                animeService.replace(AnimePutRequestBody.builder()
+                                .id(savedAnime.getId())
+                                .name("Overlord")
+                                .build(), null);
+
+                Assertions.assertThat(animeService.findByName(savedAnime.getName())).isEmpty();
+                Assertions.assertThat(animeService.findByName("Overlord"))
+                                .extracting(Anime::getId)
+                                .containsExactly(savedAnime.getId());
+        }
+
+        @Test
+        @DisplayName("findByUsername returns the updated user when the user changed after the query ran")
+        void findByUsername_ReturnsUpdatedUser_WhenUserChangedAfterQueryRan() {
+                DevDojoUser savedUser = devDojoUserRepository.save(DevDojoUser.builder()
+                                .name("Cache")
+                                .username("cache")
+                                .password("{noop}academy")
+                                .authorities("ROLE_USER")
+                                .build());
+                devDojoUserRepository.findByUsername("cache");
+
+                savedUser.setAuthorities("ROLE_ADMIN,ROLE_USER");
+                devDojoUserRepository.save(savedUser);
+
+                Assertions.assertThat(devDojoUserRepository.findByUsername("cache").getAuthorities())
+                                .extracting(Object::toString)
+                                .containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+        }
+
+        @Test
+        @DisplayName("cacheRegionStatistics returns every entity region and the query regions in use")
+        void cacheRegionStatistics_ReturnsEntityAndQueryRegions_WhenQueriesRan() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+                animeService.findByName(savedAnime.getName());
+
+                List<CacheRegionStatistics> regions = animeService.cacheRegionStatistics();
+
+                Assertions.assertThat(regions)
+                                .extracting(CacheRegionStatistics::getName)
+                                .contains(SecondLevelCacheRegions.ANIME, SecondLevelCacheRegions.DEV_DOJO_USER,
+                                                SecondLevelCacheRegions.ANIME_QUERIES);
+                Assertions.assertThat(regionStatistics(SecondLevelCacheRegions.ANIME).getSize()).isEqualTo(1);
+        }
+
+        private CacheRegionStatistics regionStatistics(String region) {
+                return animeService.cacheRegionStatistics().stream()
+                                .filter(statistics -> statistics.getName().equals(region))
+                                .findFirst()
+                                .orElseThrow();
+        }
+}
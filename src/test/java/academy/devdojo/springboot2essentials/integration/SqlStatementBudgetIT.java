@@ -0,0 +1,117 @@
+package academy.devdojo.springboot2essentials.integration;
+
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.handler.SqlStatementHeaderAdvice;
+import academy.devdojo.springboot2essentials.repository.AnimeRepository;
+import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+import academy.devdojo.springboot2essentials.util.AnimeCreator;
+import academy.devdojo.springboot2essentials.util.AnimePostRequestBodyCreator;
+import academy.devdojo.springboot2essentials.util.SqlStatementBudgetAssertions;
+import academy.devdojo.springboot2essentials.wrapper.PageableResponse;
+
+// the in-memory users sign in without touching the database, so only the endpoint's own statements are counted
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "devdojo.sql-statements.headers=true")
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+class SqlStatementBudgetIT {
+        @Autowired
+        private TestRestTemplate testRestTemplate;
+        @Autowired
+        private AnimeRepository animeRepository;
+
+        @Test
+        @DisplayName("list stays within its sql statement budget when successful")
+        void list_StaysWithinSqlStatementBudget_WhenSuccessful() {
+                animeRepository.saveAll(List.of(AnimeCreator.createAnimeToBeSaved(),
+                                AnimeCreator.createAnimeToBeSaved(), AnimeCreator.createAnimeToBeSaved()));
+
+                ResponseEntity<PageableResponse<Anime>> response = user().exchange("/animes?size=2", HttpMethod.GET,
+                                null, new ParameterizedTypeReference<PageableResponse<Anime>>() {
+                                });
+
+                Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                SqlStatementBudgetAssertions.assertWithinBudget(response);
+        }
+
+        @Test
+        @DisplayName("findById stays within its sql statement budget when successful")
+        void findById_StaysWithinSqlStatementBudget_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                ResponseEntity<Anime> response = user().getForEntity("/animes/{id}", Anime.class, savedAnime.getId());
+
+                Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                SqlStatementBudgetAssertions.assertWithinBudget(response);
+        }
+
+        @Test
+        @DisplayName("save stays within its sql statement budget when successful")
+        void save_StaysWithinSqlStatementBudget_WhenSuccessful() {
+                // the first save of a fresh context claims a block of ids, the most statements a save ever runs
+                ResponseEntity<Anime> response = user().postForEntity("/animes",
+                                AnimePostRequestBodyCreator.createAnimePostRequestBody(), Anime.class);
+
+                Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+                SqlStatementBudgetAssertions.assertWithinBudget(response);
+        }
+
+        @Test
+        @DisplayName("replace stays within its sql statement budget when successful")
+        void replace_StaysWithinSqlStatementBudget_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                ResponseEntity<Void> response = user().exchange("/animes", HttpMethod.PUT,
+                                new HttpEntity<>(AnimePutRequestBody.builder()
+                                                .id(savedAnime.getId())
+                                                .name("Overlord")
+                                                .build()),
+                                Void.class);
+
+                Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+                SqlStatementBudgetAssertions.assertWithinBudget(response);
+        }
+
+        @Test
+        @DisplayName("delete stays within its sql statement budget when successful")
+        void delete_StaysWithinSqlStatementBudget_WhenSuccessful() {
+                Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+                ResponseEntity<Void> response = testRestTemplate.withBasicAuth("igor2", "academy")
+                                .exchange("/animes/admin/{id}", HttpMethod.DELETE, null, Void.class,
+                                                savedAnime.getId());
+
+                Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+                SqlStatementBudgetAssertions.assertWithinBudget(response);
+        }
+
+        @Test
+        @DisplayName("list reports the jdbc time of the request when successful")
+        void list_ReportsJdbcTime_WhenSuccessful() {
+                ResponseEntity<String> response = user().getForEntity("/animes", String.class);
+
+                Assertions.assertThat(response.getHeaders().getFirst(SqlStatementHeaderAdvice.SERVER_TIMING))
+                                .matches("sql;dur=\\d+\\.\\d{3}");
+        }
+
+        private TestRestTemplate user() {
+                return testRestTemplate.withBasicAuth("devdojo2", "academy");
+        }
+}
@@ -1,6 +1,7 @@
 package academy.devdojo.springboot2essentials.repository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.validation.ConstraintViolationException;
@@ -10,9 +11,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import academy.devdojo.springboot2essentials.domain.Anime;
 import academy.devdojo.springboot2essentials.util.AnimeCreator;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
 
 @DataJpaTest
 @DisplayName("Tests for Anime Repository")
@@ -95,6 +101,148 @@ public class AnimeRepositoryTest {
 
     }
 
+    @Test
+    @DisplayName("Find by name starting with returns page of animes with the prefix when successful")
+    void findByNameStartingWith_ReturnsPageOfAnimes_WhenSuccessful() {
+        Anime naruto = this.animeRepository.save(Anime.builder().name("Naruto").build());
+
+        this.animeRepository.save(Anime.builder().name("Hajime no Ippo").build());
+
+        Page<Anime> animePage = this.animeRepository.findByNameStartingWith("Nar", PageRequest.of(0, 5));
+
+        Assertions.assertThat(animePage.getContent()).containsExactly(naruto);
+
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Find all summaries returns page of id and name sorted as requested when successful")
+    void findAllSummaries_ReturnsSortedPageOfSummaries_WhenSuccessful() {
+        Anime naruto = this.animeRepository.save(Anime.builder().name("Naruto").build());
+
+        Anime ippo = this.animeRepository.save(Anime.builder().name("Hajime no Ippo").build());
+
+        Page<AnimeSummary> summaryPage = this.animeRepository.findAllSummaries(
+                PageRequest.of(0, 1, Sort.by("name")));
+
+        Assertions.assertThat(summaryPage.getContent())
+                .containsExactly(new AnimeSummary(ippo.getId(), ippo.getName()));
+
+        Assertions.assertThat(summaryPage.getTotalElements()).isEqualTo(2);
+
+        Assertions.assertThat(this.animeRepository.findAllSummaries())
+                .containsExactlyInAnyOrder(new AnimeSummary(naruto.getId(), naruto.getName()),
+                        new AnimeSummary(ippo.getId(), ippo.getName()));
+    }
+
+    @Test
+    @DisplayName("Find by name starting with treats like wildcards as literal characters")
+    void findByNameStartingWith_TreatsWildcardsAsLiterals_WhenPrefixHasWildcards() {
+        this.animeRepository.save(Anime.builder().name("Naruto").build());
+
+        Page<Anime> animePage = this.animeRepository.findByNameStartingWith("%", PageRequest.of(0, 5));
+
+        Assertions.assertThat(animePage.getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Find by id greater than returns animes after the given id when successful")
+    void findByIdGreaterThanOrderByIdAsc_ReturnsAnimesAfterId_WhenSuccessful() {
+        Anime first = this.animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        Anime second = this.animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        Slice<Anime> slice = this.animeRepository.findByIdGreaterThanOrderByIdAsc(first.getId(), PageRequest.of(0, 5));
+
+        Assertions.assertThat(slice.getContent())
+                .hasSize(1)
+                .containsExactly(second);
+
+        Assertions.assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Find after name and id returns animes sorted after the given name and id when successful")
+    void findAfterNameAndId_ReturnsAnimesAfterNameAndId_WhenSuccessful() {
+        Anime berserk = this.animeRepository.save(Anime.builder().name("Berserk").build());
+
+        Anime naruto = this.animeRepository.save(Anime.builder().name("Naruto").build());
+
+        this.animeRepository.save(Anime.builder().name("Akira").build());
+
+        Slice<Anime> slice = this.animeRepository.findAfterNameAndId(berserk.getName(), berserk.getId(),
+                PageRequest.of(0, 5));
+
+        Assertions.assertThat(slice.getContent())
+                .containsExactly(naruto);
+    }
+
+    @Test
+    @DisplayName("Update names changes the name of every given anime when successful")
+    void updateNames_ChangesNames_WhenSuccessful() {
+        Anime berserk = this.animeRepository.save(Anime.builder().name("Berserk").build());
+
+        Anime naruto = this.animeRepository.save(Anime.builder().name("Naruto").build());
+
+        int updated = this.animeRepository.updateNames(Map.of(
+                berserk.getId(), "Berserk 1997",
+                naruto.getId(), "Naruto Shippuden"));
+
+        Assertions.assertThat(updated).isEqualTo(2);
+
+        Assertions.assertThat(this.animeRepository.findById(berserk.getId()))
+                .map(Anime::getName)
+                .contains("Berserk 1997");
+
+        Assertions.assertThat(this.animeRepository.findById(naruto.getId()))
+                .map(Anime::getName)
+                .contains("Naruto Shippuden");
+    }
+
+    @Test
+    @DisplayName("Update name if version changes the name and increments the version when the version matches")
+    void updateNameIfVersion_ChangesNameAndVersion_WhenVersionMatches() {
+        Anime berserk = this.animeRepository.save(Anime.builder().name("Berserk").build());
+
+        int updated = this.animeRepository.updateNameIfVersion(berserk.getId(), "Berserk 1997", berserk.getVersion());
+
+        Assertions.assertThat(updated).isEqualTo(1);
+
+        Anime updatedAnime = this.animeRepository.findById(berserk.getId()).orElseThrow();
+
+        Assertions.assertThat(updatedAnime.getName()).isEqualTo("Berserk 1997");
+
+        Assertions.assertThat(updatedAnime.getVersion()).isEqualTo(berserk.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Update name if version changes nothing when the version is stale")
+    void updateNameIfVersion_ChangesNothing_WhenVersionIsStale() {
+        Anime berserk = this.animeRepository.save(Anime.builder().name("Berserk").build());
+
+        int updated = this.animeRepository.updateNameIfVersion(berserk.getId(), "Berserk 1997",
+                berserk.getVersion() + 1);
+
+        Assertions.assertThat(updated).isZero();
+
+        Assertions.assertThat(this.animeRepository.findVersionById(berserk.getId())).contains(berserk.getVersion());
+    }
+
+    @Test
+    @DisplayName("Delete by ids removes every given anime and find existing ids ignores them")
+    void deleteByIds_RemovesAnimes_WhenSuccessful() {
+        Anime berserk = this.animeRepository.save(Anime.builder().name("Berserk").build());
+
+        Anime naruto = this.animeRepository.save(Anime.builder().name("Naruto").build());
+
+        int deleted = this.animeRepository.deleteByIds(List.of(berserk.getId()));
+
+        Assertions.assertThat(deleted).isEqualTo(1);
+
+        Assertions.assertThat(this.animeRepository.findExistingIds(List.of(berserk.getId(), naruto.getId())))
+                .containsExactly(naruto.getId());
+    }
+
     @Test
     @DisplayName("Save throw ConstraintViolationException when name is empty")
     void save_ThrowsConstraintViolationException_WhenNameIsEmpty() {
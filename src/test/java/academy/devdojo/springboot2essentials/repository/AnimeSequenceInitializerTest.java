@@ -0,0 +1,77 @@
+package academy.devdojo.springboot2essentials.repository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import academy.devdojo.springboot2essentials.domain.Anime;
+
+// altering a sequence commits in H2, so the rows are committed and removed by hand
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tests for AnimeSequenceInitializer")
+public class AnimeSequenceInitializerTest {
+
+    @Autowired
+    private AnimeRepository animeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        animeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("seed moves the sequence past ids that were inserted without it")
+    void seed_AllowsNewAnimes_WhenTableHasRowsAheadOfTheSequence() {
+        long currentValue = jdbcTemplate.queryForObject("call next value for " + Anime.ID_SEQUENCE, Long.class);
+        // rows written before the sequence existed, right where it would hand out its next ids
+        for (long id = currentValue + 1; id <= currentValue + 4 * Anime.ID_ALLOCATION_SIZE; id++) {
+            jdbcTemplate.update("insert into anime (id, name, version) values (?, ?, 0)", id, "Existing " + id);
+        }
+
+        new AnimeSequenceInitializer(jdbcTemplate, entityManagerFactory).seed();
+
+        List<Anime> savedAnimes = animeRepository.saveAll(IntStream.range(0, 2 * Anime.ID_ALLOCATION_SIZE)
+                .mapToObj(row -> Anime.builder().name("New " + row).build())
+                .collect(Collectors.toList()));
+
+        Assertions.assertThat(savedAnimes)
+                .extracting(Anime::getId)
+                .doesNotHaveDuplicates()
+                .allMatch(id -> id <= currentValue || id > currentValue + 4 * Anime.ID_ALLOCATION_SIZE);
+
+        Assertions.assertThat(animeRepository.count()).isEqualTo(6L * Anime.ID_ALLOCATION_SIZE);
+    }
+
+    @Test
+    @DisplayName("seed leaves the sequence alone when it is already past every id")
+    void seed_KeepsSequence_WhenItIsAheadOfTheTable() {
+        Anime savedAnime = animeRepository.save(Anime.builder().name("Overlord").build());
+        long before = jdbcTemplate.queryForObject("call next value for " + Anime.ID_SEQUENCE, Long.class);
+
+        new AnimeSequenceInitializer(jdbcTemplate, entityManagerFactory).seed();
+
+        long after = jdbcTemplate.queryForObject("call next value for " + Anime.ID_SEQUENCE, Long.class);
+
+        Assertions.assertThat(before).isGreaterThan(savedAnime.getId());
+
+        // only the value seed read was taken, the sequence was not restarted
+        Assertions.assertThat(after).isEqualTo(before + 2 * Anime.ID_ALLOCATION_SIZE);
+    }
+}
@@ -0,0 +1,156 @@
+package academy.devdojo.springboot2essentials.search;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import academy.devdojo.springboot2essentials.wrapper.AnimeSuggestion;
+
+@DisplayName("Tests for AnimeSearchIndex")
+public class AnimeSearchIndexTest {
+
+    private AnimeSearchIndex animeSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        animeSearchIndex = new AnimeSearchIndex();
+        animeSearchIndex.putAll(Map.of(
+                1L, "Naruto",
+                2L, "Naruto Shippuden",
+                3L, "Hajime no Ippo",
+                4L, "Pokémon"));
+    }
+
+    @Test
+    @DisplayName("search returns animes starting with a partially typed word ranked by similarity")
+    void search_ReturnsRankedAnimes_WhenQueryIsPrefix() {
+        List<AnimeSuggestion> suggestions = animeSearchIndex.search("nar", 10);
+
+        Assertions.assertThat(suggestions)
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("search returns anime when query has a typo")
+    void search_ReturnsAnime_WhenQueryHasTypo() {
+        Assertions.assertThat(animeSearchIndex.search("narto", 10))
+                .extracting(AnimeSuggestion::getId)
+                .startsWith(1L);
+    }
+
+    @Test
+    @DisplayName("search ignores case, accents and punctuation")
+    void search_IgnoresCaseAccentsAndPunctuation_WhenSuccessful() {
+        Assertions.assertThat(animeSearchIndex.search("POKEMON!", 10))
+                .extracting(AnimeSuggestion::getName)
+                .containsExactly("Pokémon");
+    }
+
+    @Test
+    @DisplayName("search matches words in the middle of the name")
+    void search_ReturnsAnime_WhenQueryMatchesLaterWord() {
+        Assertions.assertThat(animeSearchIndex.search("ippo", 10))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("search returns at most limit suggestions")
+    void search_ReturnsAtMostLimitSuggestions_WhenMoreAnimesMatch() {
+        Assertions.assertThat(animeSearchIndex.search("naruto", 1))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("search still ranks a bounded set of candidates when every query trigram is over the budget")
+    void search_ReturnsSuggestions_WhenEveryTrigramIsTooCommon() {
+        Map<Long, String> animes = new HashMap<>();
+        for (long id = 10; id < 10 + AnimeSearchIndex.MAX_CANDIDATE_POSTINGS * 2L; id++) {
+            animes.put(id, "Naruto " + id);
+        }
+        animeSearchIndex.putAll(animes);
+
+        List<AnimeSuggestion> suggestions = animeSearchIndex.search("naruto", 5);
+
+        Assertions.assertThat(suggestions)
+                .hasSize(5)
+                .extracting(AnimeSuggestion::getName)
+                .allMatch(name -> name.startsWith("Naruto"));
+    }
+
+    @Test
+    @DisplayName("search returns empty list when query is too short")
+    void search_ReturnsEmptyList_WhenQueryIsTooShort() {
+        Assertions.assertThat(animeSearchIndex.search("n", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("put replaces the indexed name of an existing anime")
+    void put_ReplacesIndexedName_WhenAnimeAlreadyExists() {
+        animeSearchIndex.put(1L, "Boruto");
+
+        Assertions.assertThat(animeSearchIndex.search("boruto", 10))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(1L);
+
+        Assertions.assertThat(animeSearchIndex.search("naruto", 10))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(2L);
+
+        Assertions.assertThat(animeSearchIndex.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("remove keeps removed animes out of results after compaction")
+    void remove_ExcludesRemovedAnimes_WhenIndexIsCompacted() {
+        for (long id = 100; id < 3100; id++) {
+            animeSearchIndex.put(id, "Dragon Ball " + id);
+        }
+        for (long id = 100; id < 3100; id++) {
+            animeSearchIndex.remove(id);
+        }
+
+        Assertions.assertThat(animeSearchIndex.search("dragon", 10)).isEmpty();
+
+        Assertions.assertThat(animeSearchIndex.search("naruto", 10))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(1L, 2L);
+
+        Assertions.assertThat(animeSearchIndex.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("rebuild replaces the index and keeps the writes made while it was loading")
+    void rebuild_KeepsConcurrentWrites_WhenIndexIsRebuilt() {
+        animeSearchIndex.rebuild(index -> {
+            index.put(1L, "Naruto");
+            index.put(5L, "Bleach");
+
+            Assertions.assertThat(animeSearchIndex.search("naruto", 10))
+                    .extracting(AnimeSuggestion::getId)
+                    .containsExactly(1L, 2L);
+
+            animeSearchIndex.put(6L, "Berserk");
+            animeSearchIndex.remove(5L);
+        });
+
+        Assertions.assertThat(animeSearchIndex.search("naruto", 10))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(1L);
+
+        Assertions.assertThat(animeSearchIndex.search("berserk", 10))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(6L);
+
+        Assertions.assertThat(animeSearchIndex.search("bleach", 10)).isEmpty();
+
+        Assertions.assertThat(animeSearchIndex.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,91 @@
+package academy.devdojo.springboot2essentials.security;
+
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import academy.devdojo.springboot2essentials.cache.AuthenticationCache;
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+import academy.devdojo.springboot2essentials.domain.DevDojoUser;
+
+@ExtendWith(SpringExtension.class)
+public class CachingAuthenticationProviderTest {
+    private static final DevDojoUser USER = DevDojoUser.builder()
+            .id(1L)
+            .name("DevDojo Academy")
+            .username("devdojo")
+            .authorities("ROLE_USER")
+            .build();
+
+    @Mock
+    private AuthenticationManager authenticationManagerMock;
+
+    private AuthenticationCache authenticationCache;
+
+    private CachingAuthenticationProvider cachingAuthenticationProvider;
+
+    @BeforeEach
+    void setUp() {
+        authenticationCache = new AuthenticationCache(new DevDojoProperties());
+        cachingAuthenticationProvider = new CachingAuthenticationProvider(authenticationManagerMock,
+                authenticationCache);
+
+        BDDMockito.when(authenticationManagerMock.authenticate(ArgumentMatchers.any(Authentication.class)))
+                .thenReturn(new UsernamePasswordAuthenticationToken(USER, null,
+                        List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @Test
+    @DisplayName("authenticate verifies credentials only once when they are repeated")
+    void authenticate_VerifiesCredentialsOnce_WhenCredentialsAreRepeated() {
+        Authentication first = cachingAuthenticationProvider.authenticate(credentials("academy"));
+        Authentication second = cachingAuthenticationProvider.authenticate(credentials("academy"));
+
+        BDDMockito.verify(authenticationManagerMock, Mockito.times(1))
+                .authenticate(ArgumentMatchers.any(Authentication.class));
+
+        Assertions.assertThat(second.getPrincipal()).isEqualTo(first.getPrincipal());
+
+        Assertions.assertThat(second.isAuthenticated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("authenticate delegates again when the password differs")
+    void authenticate_DelegatesAgain_WhenPasswordDiffers() {
+        cachingAuthenticationProvider.authenticate(credentials("academy"));
+        cachingAuthenticationProvider.authenticate(credentials("wrong"));
+
+        BDDMockito.verify(authenticationManagerMock, Mockito.times(2))
+                .authenticate(ArgumentMatchers.any(Authentication.class));
+    }
+
+    @Test
+    @DisplayName("authenticate delegates again after the user is evicted")
+    void authenticate_DelegatesAgain_WhenUserIsEvicted() {
+        cachingAuthenticationProvider.authenticate(credentials("academy"));
+
+        authenticationCache.evict(USER);
+
+        cachingAuthenticationProvider.authenticate(credentials("academy"));
+
+        BDDMockito.verify(authenticationManagerMock, Mockito.times(2))
+                .authenticate(ArgumentMatchers.any(Authentication.class));
+    }
+
+    private Authentication credentials(String password) {
+        return new UsernamePasswordAuthenticationToken(USER.getUsername(), password);
+    }
+}
@@ -0,0 +1,71 @@
+package academy.devdojo.springboot2essentials.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import academy.devdojo.springboot2essentials.cache.AnimeCache;
+import academy.devdojo.springboot2essentials.cache.AnimeCountCache;
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+import academy.devdojo.springboot2essentials.search.AnimeSearchIndex;
+import academy.devdojo.springboot2essentials.util.AnimeCreator;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSuggestion;
+
+@DisplayName("Tests for AnimeChangeHooks")
+public class AnimeChangeHooksTest {
+
+    private AnimeCache animeCache;
+    private AnimeSearchIndex animeSearchIndex;
+    private AnimeCountCache animeCountCacheMock;
+    private AnimeChangeHooks animeChangeHooks;
+
+    @BeforeEach
+    void setUp() {
+        animeCache = new AnimeCache(new DevDojoProperties());
+        animeSearchIndex = new AnimeSearchIndex();
+        animeCountCacheMock = Mockito.mock(AnimeCountCache.class);
+        animeChangeHooks = new AnimeChangeHooks(animeCache, animeSearchIndex, animeCountCacheMock);
+    }
+
+    @Test
+    @DisplayName("saved makes the animes suggestible and adds them to the cached count")
+    void saved_IndexesAndCountsAnimes_WhenSuccessful() {
+        animeChangeHooks.saved(Map.of(1L, "Hajime no Ippo"));
+
+        Assertions.assertThat(animeSearchIndex.search("hajme", 10))
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(1L);
+
+        BDDMockito.verify(animeCountCacheMock).add(1);
+    }
+
+    @Test
+    @DisplayName("replaced evicts the cached animes so the next lookup reads the new name")
+    void replaced_EvictsCachedAnimes_WhenSuccessful() {
+        animeCache.get(1L, id -> Optional.of(AnimeCreator.createValidAnime()));
+
+        animeChangeHooks.replaced(Map.of(1L, "Hajime no Ippo 2"));
+
+        Assertions.assertThat(animeCache.get(1L, id -> Optional.of(AnimeCreator.createValidUpdatedAnime())))
+                .contains(AnimeCreator.createValidUpdatedAnime());
+    }
+
+    @Test
+    @DisplayName("deleted removes the animes from the suggestions and the cached count")
+    void deleted_RemovesAnimesFromIndexAndCount_WhenSuccessful() {
+        animeChangeHooks.saved(Map.of(1L, "Hajime no Ippo"));
+
+        animeChangeHooks.deleted(List.of(1L));
+
+        Assertions.assertThat(animeSearchIndex.search("hajime", 10)).isEmpty();
+
+        BDDMockito.verify(animeCountCacheMock).add(-1);
+    }
+}
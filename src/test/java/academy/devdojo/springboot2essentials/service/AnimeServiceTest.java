@@ -1,8 +1,21 @@
 package academy.devdojo.springboot2essentials.service;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.hibernate.Session;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,17 +26,39 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import academy.devdojo.springboot2essentials.cache.AnimeCache;
+import academy.devdojo.springboot2essentials.cache.AnimeChangeCounter;
+import academy.devdojo.springboot2essentials.cache.AnimeCountCache;
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+import academy.devdojo.springboot2essentials.datasource.PrimaryReads;
 import academy.devdojo.springboot2essentials.domain.Anime;
 import academy.devdojo.springboot2essentials.exception.BadRequestException;
+import academy.devdojo.springboot2essentials.exception.PreconditionFailedException;
 import academy.devdojo.springboot2essentials.repository.AnimeRepository;
+import academy.devdojo.springboot2essentials.request.AnimePostRequestBody;
+import academy.devdojo.springboot2essentials.request.AnimePutRequestBody;
+import academy.devdojo.springboot2essentials.request.CountMode;
+import academy.devdojo.springboot2essentials.search.AnimeSearchIndex;
 import academy.devdojo.springboot2essentials.util.AnimeCreator;
 import academy.devdojo.springboot2essentials.util.AnimePostRequestBodyCreator;
 import academy.devdojo.springboot2essentials.util.AnimePutRequestBodyCreator;
+import academy.devdojo.springboot2essentials.util.KeysetCursor;
+import academy.devdojo.springboot2essentials.wrapper.AnimeLookupResponse;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSuggestion;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
+import academy.devdojo.springboot2essentials.wrapper.BatchItemResult;
+import academy.devdojo.springboot2essentials.wrapper.BulkOperationResponse;
+import academy.devdojo.springboot2essentials.wrapper.KeysetResponse;
 
 @ExtendWith(SpringExtension.class)
 public class AnimeServiceTest {
@@ -32,6 +67,24 @@ public class AnimeServiceTest {
     private AnimeService animeService;
     @Mock
     private AnimeRepository animeRepositoryMock;
+    @Mock
+    private EntityManager entityManagerMock;
+    @Spy
+    private AnimeCache animeCache = new AnimeCache(new DevDojoProperties());
+    @Mock
+    private Validator validatorMock;
+    @Spy
+    private DevDojoProperties devDojoProperties = new DevDojoProperties();
+    @Spy
+    private AnimeSearchIndex animeSearchIndex = new AnimeSearchIndex();
+    @Mock
+    private AnimeCountCache animeCountCacheMock;
+    @Mock
+    private AnimeChangeCounter animeChangeCounterMock;
+    @Mock
+    private AnimeChangeHooks animeChangeHooksMock;
+    @Mock
+    private PrimaryReads primaryReadsMock;
 
     @BeforeEach
     void setUp() {
@@ -43,17 +96,49 @@ public class AnimeServiceTest {
         BDDMockito.when(animeRepositoryMock.findAll())
                 .thenReturn(List.of(AnimeCreator.createValidAnime()));
 
+        BDDMockito.when(animeRepositoryMock.findAllSummaries(ArgumentMatchers.any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(List.of(AnimeCreator.createValidAnimeSummary())));
+
+        BDDMockito.when(animeRepositoryMock.findAllSummaries())
+                .thenReturn(List.of(AnimeCreator.createValidAnimeSummary()));
+
+        BDDMockito.when(animeRepositoryMock.streamAllByOrderByIdAsc())
+                .thenAnswer(invocation -> Stream.of(AnimeCreator.createValidAnime()));
+
+        SliceImpl<Anime> animeSlice = new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 1),
+                true);
+
+        BDDMockito.when(animeRepositoryMock.findAllByOrderByIdAsc(ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(animeSlice);
+
+        BDDMockito.when(animeRepositoryMock.findByIdGreaterThanOrderByIdAsc(ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(animeSlice);
+
         BDDMockito.when(animeRepositoryMock.findById(ArgumentMatchers.anyLong()))
                 .thenReturn(Optional.of(AnimeCreator.createValidAnime()));
 
         BDDMockito.when(animeRepositoryMock.findByName(ArgumentMatchers.anyString()))
                 .thenReturn(List.of(AnimeCreator.createValidAnime()));
 
+        BDDMockito.when(animeRepositoryMock.findByNameStartingWith(ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(animePage);
+
         BDDMockito.when(animeRepositoryMock.save(ArgumentMatchers.any(Anime.class)))
                 .thenReturn(AnimeCreator.createValidAnime());
 
         BDDMockito.doNothing().when(animeRepositoryMock).delete(ArgumentMatchers.any(Anime.class));
 
+        BDDMockito.when(animeRepositoryMock.updateName(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+                .thenReturn(1);
+
+        BDDMockito.when(primaryReadsMock.read(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
+        BDDMockito.when(entityManagerMock.unwrap(Session.class))
+                .thenReturn(Mockito.mock(Session.class));
+
     }
 
     @Test
@@ -72,6 +157,137 @@ public class AnimeServiceTest {
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listAll returns slice without running a count query when count is none")
+    void listAll_ReturnsSliceWithoutCount_WhenCountIsNone() {
+        BDDMockito.when(animeRepositoryMock.findAllBy(ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 1), true));
+
+        Slice<Anime> animeSlice = animeService.listAll(PageRequest.of(0, 1), CountMode.NONE);
+
+        Assertions.assertThat(animeSlice).isNotInstanceOf(Page.class);
+
+        Assertions.assertThat(animeSlice.hasNext()).isTrue();
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).findAll(ArgumentMatchers.any(Pageable.class));
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("listAll returns page with cached total when count is approximate")
+    void listAll_ReturnsPageWithCachedTotal_WhenCountIsApproximate() {
+        BDDMockito.when(animeRepositoryMock.findAllBy(ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 1), true));
+        BDDMockito.when(animeCountCacheMock.get()).thenReturn(42L);
+
+        Slice<Anime> animeSlice = animeService.listAll(PageRequest.of(0, 1), CountMode.APPROXIMATE);
+
+        Assertions.assertThat(animeSlice).isInstanceOf(Page.class);
+
+        Assertions.assertThat(((Page<Anime>) animeSlice).getTotalElements()).isEqualTo(42L);
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("listAll computes exact total without the cache when count is approximate and on the last page")
+    void listAll_ReturnsPageWithExactTotal_WhenCountIsApproximateAndPageIsLast() {
+        BDDMockito.when(animeRepositoryMock.findAllBy(ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(3, 2), false));
+
+        Slice<Anime> animeSlice = animeService.listAll(PageRequest.of(3, 2), CountMode.APPROXIMATE);
+
+        Assertions.assertThat(((Page<Anime>) animeSlice).getTotalElements()).isEqualTo(7L);
+
+        BDDMockito.verifyNoInteractions(animeCountCacheMock);
+    }
+
+    @Test
+    @DisplayName("listAll falls back to the cached count when count is approximate and the page is past the end")
+    void listAll_ReturnsPageWithCachedTotal_WhenCountIsApproximateAndPageIsOutOfRange() {
+        BDDMockito.when(animeRepositoryMock.findAllBy(ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(50, 20), false));
+        BDDMockito.when(animeCountCacheMock.get()).thenReturn(42L);
+
+        Slice<Anime> animeSlice = animeService.listAll(PageRequest.of(50, 20), CountMode.APPROXIMATE);
+
+        Assertions.assertThat(animeSlice.getContent()).isEmpty();
+
+        Assertions.assertThat(((Page<Anime>) animeSlice).getTotalElements()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("save passes the saved anime to the change hooks")
+    void save_PassesSavedAnimeToChangeHooks_WhenSuccessful() {
+        animeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
+
+        BDDMockito.verify(animeChangeHooksMock).saved(Map.of(AnimeCreator.createValidAnime().getId(),
+                AnimeCreator.createValidAnime().getName()));
+    }
+
+    @Test
+    @DisplayName("replace increments the change counter when successful")
+    void replace_IncrementsChangeCounter_WhenSuccessful() {
+        animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), null);
+
+        BDDMockito.verify(animeChangeCounterMock).increment();
+    }
+
+    @Test
+    @DisplayName("listAfter returns first keyset page with next cursor when successful")
+    void listAfter_ReturnsKeysetPageWithNextCursor_WhenSuccessful() {
+        Anime expectedAnime = AnimeCreator.createValidAnime();
+
+        KeysetResponse<Anime> keysetPage = animeService.listAfter("", 1, "id");
+
+        Assertions.assertThat(keysetPage).isNotNull();
+
+        Assertions.assertThat(keysetPage.getContent())
+                .isNotEmpty()
+                .hasSize(1)
+                .contains(expectedAnime);
+
+        Assertions.assertThat(keysetPage.isHasNext()).isTrue();
+
+        Assertions.assertThat(KeysetCursor.decode(keysetPage.getNextCursor()).getId())
+                .isEqualTo(expectedAnime.getId());
+    }
+
+    @Test
+    @DisplayName("listAfter seeks past the cursor id when cursor is given")
+    void listAfter_SeeksPastCursorId_WhenCursorIsGiven() {
+        animeService.listAfter(KeysetCursor.of(10L, null).encode(), 1, "id");
+
+        BDDMockito.verify(animeRepositoryMock)
+                .findByIdGreaterThanOrderByIdAsc(ArgumentMatchers.eq(10L), ArgumentMatchers.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("listAfter throws BadRequestException when cursor is invalid")
+    void listAfter_ThrowsBadRequestException_WhenCursorIsInvalid() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.listAfter("not a cursor", 1, "id"));
+    }
+
+    @Test
+    @DisplayName("listSummaries returns page of anime summaries when successful")
+    void listSummaries_ReturnsPageOfAnimeSummaries_WhenSuccessful() {
+        Page<AnimeSummary> summaryPage = animeService.listSummaries(PageRequest.of(1, 1));
+
+        Assertions.assertThat(summaryPage.toList()).containsExactly(AnimeCreator.createValidAnimeSummary());
+
+        Mockito.verify(animeRepositoryMock, Mockito.never()).findAll(ArgumentMatchers.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("listAllSummariesNonPageable returns list of anime summaries when successful")
+    void listAllSummariesNonPageable_ReturnsListOfAnimeSummaries_WhenSuccessful() {
+        List<AnimeSummary> summaries = animeService.listAllSummariesNonPageable();
+
+        Assertions.assertThat(summaries).containsExactly(AnimeCreator.createValidAnimeSummary());
+    }
+
     @Test
     @DisplayName("listAllNonPageable returns list of anime when successful")
     void listAllNonPageable_ReturnsListOfAnimes_WhenSuccessful() {
@@ -87,6 +303,20 @@ public class AnimeServiceTest {
         Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("streamAll passes every anime to the consumer and detaches it when successful")
+    void streamAll_PassesAnimesToConsumerAndDetachesThem_WhenSuccessful() {
+        List<Anime> animes = new ArrayList<>();
+
+        animeService.streamAll(animes::add);
+
+        Assertions.assertThat(animes)
+                .hasSize(1)
+                .containsExactly(AnimeCreator.createValidAnime());
+
+        BDDMockito.verify(entityManagerMock).detach(animes.get(0));
+    }
+
     @Test
     @DisplayName("findByIdOrThrowBadRequestException returns anime when successful")
     void findByIdOrThrowBadRequestException_ReturnsListOfAnimes_WhenSuccessful() {
@@ -109,6 +339,78 @@ public class AnimeServiceTest {
         .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(1L));
     }
 
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException serves repeated lookups from the cache")
+    void findByIdOrThrowBadRequestException_ServesRepeatedLookupsFromCache_WhenAnimeIsFound() {
+        animeService.findByIdOrThrowBadRequestException(1L);
+        animeService.findByIdOrThrowBadRequestException(1L);
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.times(1)).findById(1L);
+
+        Assertions.assertThat(animeService.cacheStatistics().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException caches lookups of missing animes")
+    void findByIdOrThrowBadRequestException_CachesMissingAnimes_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepositoryMock.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(1L));
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(1L));
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("findAllById returns animes in the requested order and the ids that were not found")
+    void findAllById_ReturnsAnimesAndMissingIds_WhenSomeAnimesAreNotFound() {
+        Anime anime = AnimeCreator.createValidAnime();
+        BDDMockito.when(animeRepositoryMock.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(List.of(anime));
+
+        AnimeLookupResponse response = animeService.findAllById(List.of(3L, anime.getId(), 3L));
+
+        Assertions.assertThat(response.getAnimes()).containsExactly(anime);
+
+        Assertions.assertThat(response.getMissingIds()).containsExactly(3L);
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.times(1)).findAllById(List.of(anime.getId(), 3L));
+    }
+
+    @Test
+    @DisplayName("findAllById only loads the ids that are not cached")
+    void findAllById_LoadsOnlyUncachedIds_WhenSomeAnimesAreCached() {
+        animeService.findByIdOrThrowBadRequestException(1L);
+
+        animeService.findAllById(List.of(1L, 2L));
+
+        BDDMockito.verify(animeRepositoryMock).findAllById(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("findAllById throws BadRequestException when too many ids are requested")
+    void findAllById_ThrowsBadRequestException_WhenTooManyIdsAreRequested() {
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().collect(Collectors.toList());
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findAllById(ids));
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).findAllById(ArgumentMatchers.anyIterable());
+    }
+
+    @Test
+    @DisplayName("replace passes the new name to the change hooks when successful")
+    void replace_PassesNewNameToChangeHooks_WhenSuccessful() {
+        animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), null);
+
+        BDDMockito.verify(animeChangeHooksMock).replaced(Map.of(AnimeCreator.createValidUpdatedAnime().getId(),
+                AnimeCreator.createValidUpdatedAnime().getName()));
+    }
+
     @Test
     @DisplayName("findByName returns anime when successful")
     void findByName_ReturnsListOfAnimes_WhenSuccessful() {
@@ -138,6 +440,46 @@ public class AnimeServiceTest {
 
     }
 
+    @Test
+    @DisplayName("findByPrefix returns page of anime when successful")
+    void findByPrefix_ReturnsPageOfAnimes_WhenSuccessful() {
+        String expectedName = AnimeCreator.createValidAnime().getName();
+
+        Page<Anime> animePage = animeService.findByPrefix("Haj", PageRequest.of(0, 5));
+
+        Assertions.assertThat(animePage.toList())
+                .isNotEmpty()
+                .hasSize(1);
+
+        Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
+    }
+
+    @Test
+    @DisplayName("findByPrefix throws BadRequestException when prefix is blank")
+    void findByPrefix_ThrowsBadRequestException_WhenPrefixIsBlank() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByPrefix(" ", PageRequest.of(0, 5)));
+    }
+
+    @Test
+    @DisplayName("suggest returns saved anime when query has a typo")
+    void suggest_ReturnsSavedAnime_WhenQueryHasTypo() {
+        animeSearchIndex.put(AnimeCreator.createValidAnime().getId(), AnimeCreator.createValidAnime().getName());
+
+        List<AnimeSuggestion> suggestions = animeService.suggest("hajme", 10);
+
+        Assertions.assertThat(suggestions)
+                .extracting(AnimeSuggestion::getId)
+                .containsExactly(AnimeCreator.createValidAnime().getId());
+    }
+
+    @Test
+    @DisplayName("suggest throws BadRequestException when query is blank")
+    void suggest_ThrowsBadRequestException_WhenQueryIsBlank() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.suggest(" ", 10));
+    }
+
     @Test
     @DisplayName("save returns anime when successful")
     void save_ReturnsAnimes_WhenSuccessful() {
@@ -148,15 +490,152 @@ public class AnimeServiceTest {
 
     }
 
+    @Test
+    @DisplayName("saveAll returns one created result per valid anime when successful")
+    void saveAll_ReturnsCreatedResults_WhenSuccessful() {
+        List<BatchItemResult> results = animeService.saveAll(List.of(
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                AnimePostRequestBodyCreator.createAnimePostRequestBody()).iterator());
+
+        Assertions.assertThat(results)
+                .hasSize(2)
+                .extracting(BatchItemResult::getStatus)
+                .containsOnly(201);
+
+        Assertions.assertThat(results.get(1).getIndex()).isEqualTo(1);
+
+        Assertions.assertThat(results.get(0).getId()).isEqualTo(AnimeCreator.createValidAnime().getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("saveAll reports invalid entries without saving them")
+    void saveAll_ReportsInvalidEntries_WhenAnimeIsInvalid() {
+        AnimePostRequestBody invalid = new AnimePostRequestBody();
+        ConstraintViolation<AnimePostRequestBody> violation = Mockito.mock(ConstraintViolation.class);
+        BDDMockito.when(violation.getMessage()).thenReturn("The anime name cannot be empty");
+        BDDMockito.when(validatorMock.validate(invalid)).thenReturn(Set.of(violation));
+
+        List<BatchItemResult> results = animeService.saveAll(List.of(invalid).iterator());
+
+        Assertions.assertThat(results).hasSize(1);
+
+        Assertions.assertThat(results.get(0).getStatus()).isEqualTo(400);
+
+        Assertions.assertThat(results.get(0).getMessage()).isEqualTo("The anime name cannot be empty");
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).save(ArgumentMatchers.any(Anime.class));
+    }
+
     @Test
     @DisplayName("replace updates anime when successful")
     void replace_UpdatesAnimes_WhenSuccessful() {
 
-        Assertions.assertThatCode(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()))
+        Assertions.assertThatCode(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), null))
                 .doesNotThrowAnyException();
 
     }
 
+    @Test
+    @DisplayName("replace runs a single versioned update without reading the anime first")
+    void replace_RunsVersionedUpdateWithoutPreRead_WhenIfMatchIsGiven() {
+        BDDMockito.when(animeRepositoryMock.updateNameIfVersion(1L, "Hajime no Ippo 2", 3))
+                .thenReturn(1);
+
+        animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), "\"3\"");
+
+        BDDMockito.verify(animeRepositoryMock).updateNameIfVersion(1L, "Hajime no Ippo 2", 3);
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).findById(ArgumentMatchers.anyLong());
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).save(ArgumentMatchers.any(Anime.class));
+    }
+
+    @Test
+    @DisplayName("replace throws PreconditionFailedException when the anime version is stale")
+    void replace_ThrowsPreconditionFailedException_WhenVersionIsStale() {
+        BDDMockito.when(animeRepositoryMock.updateNameIfVersion(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyInt()))
+                .thenReturn(0);
+        BDDMockito.when(animeRepositoryMock.findVersionById(1L))
+                .thenReturn(Optional.of(4));
+
+        Assertions.assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(),
+                        "\"3\""))
+                .withMessageContaining("4");
+    }
+
+    @Test
+    @DisplayName("replace throws BadRequestException when anime is not found")
+    void replace_ThrowsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepositoryMock.updateName(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+                .thenReturn(0);
+        BDDMockito.when(animeRepositoryMock.findVersionById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), null));
+    }
+
+    @Test
+    @DisplayName("replace throws PreconditionFailedException when If-Match is * and the anime is not found")
+    void replace_ThrowsPreconditionFailedException_WhenIfMatchIsWildcardAndAnimeIsNotFound() {
+        BDDMockito.when(animeRepositoryMock.updateName(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+                .thenReturn(0);
+
+        Assertions.assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), "*"));
+
+        BDDMockito.verify(animeChangeCounterMock, Mockito.never()).increment();
+    }
+
+    @Test
+    @DisplayName("replaceAll updates every anime with one statement and reports missing ids")
+    void replaceAll_UpdatesAnimesAndReportsMissingIds_WhenSomeAnimesAreNotFound() {
+        BDDMockito.when(animeRepositoryMock.updateNames(ArgumentMatchers.anyMap()))
+                .thenReturn(1);
+        BDDMockito.when(animeRepositoryMock.findExistingIds(ArgumentMatchers.anyCollection()))
+                .thenReturn(List.of(1L));
+
+        BulkOperationResponse response = animeService.replaceAll(List.of(
+                AnimePutRequestBody.builder().id(2L).name("Akira").build(),
+                AnimePutRequestBodyCreator.createAnimePutRequestBody()));
+
+        Assertions.assertThat(response.getAffected()).isEqualTo(1);
+
+        Assertions.assertThat(response.getMissingIds()).containsExactly(2L);
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.times(1)).updateNames(ArgumentMatchers.anyMap());
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).findById(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    @DisplayName("replaceAll throws BadRequestException when an anime has no id")
+    void replaceAll_ThrowsBadRequestException_WhenAnimeHasNoId() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.replaceAll(List.of(
+                        AnimePutRequestBody.builder().name("Akira").build())));
+    }
+
+    @Test
+    @DisplayName("deleteAll deletes existing animes and reports missing ids")
+    void deleteAll_DeletesExistingAnimesAndReportsMissingIds_WhenSomeAnimesAreNotFound() {
+        BDDMockito.when(animeRepositoryMock.findExistingIds(ArgumentMatchers.anyCollection()))
+                .thenReturn(List.of(1L));
+        BDDMockito.when(animeRepositoryMock.deleteByIds(ArgumentMatchers.anyCollection()))
+                .thenReturn(1);
+
+        BulkOperationResponse response = animeService.deleteAll(List.of(3L, 1L, 3L));
+
+        Assertions.assertThat(response.getAffected()).isEqualTo(1);
+
+        Assertions.assertThat(response.getMissingIds()).containsExactly(3L);
+
+        BDDMockito.verify(animeRepositoryMock).deleteByIds(List.of(1L));
+    }
+
     @Test
     @DisplayName("delete removes anime when successful")
     void delete_RemovesAnimes_WhenSuccessful() {
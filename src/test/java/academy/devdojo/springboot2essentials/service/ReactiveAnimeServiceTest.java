@@ -0,0 +1,220 @@
+package academy.devdojo.springboot2essentials.service;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.Validator;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import academy.devdojo.springboot2essentials.cache.AnimeCache;
+import academy.devdojo.springboot2essentials.cache.AnimeCountCache;
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.exception.BadRequestException;
+import academy.devdojo.springboot2essentials.exception.PreconditionFailedException;
+import academy.devdojo.springboot2essentials.repository.ReactiveAnimeRepository;
+import academy.devdojo.springboot2essentials.request.CountMode;
+import academy.devdojo.springboot2essentials.util.AnimeCreator;
+import academy.devdojo.springboot2essentials.util.AnimePostRequestBodyCreator;
+import academy.devdojo.springboot2essentials.util.AnimePutRequestBodyCreator;
+import academy.devdojo.springboot2essentials.util.KeysetCursor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(SpringExtension.class)
+public class ReactiveAnimeServiceTest {
+
+    @InjectMocks
+    private ReactiveAnimeService reactiveAnimeService;
+    @Mock
+    private ReactiveAnimeRepository reactiveAnimeRepositoryMock;
+    @Mock
+    private TransactionalOperator reactiveTransactionalOperatorMock;
+    @Spy
+    private AnimeCache animeCache = new AnimeCache(new DevDojoProperties());
+    @Mock
+    private AnimeCountCache animeCountCacheMock;
+    @Mock
+    private AnimeChangeHooks animeChangeHooksMock;
+    @Mock
+    private Validator validatorMock;
+    @Spy
+    private DevDojoProperties devDojoProperties = new DevDojoProperties();
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.when(reactiveAnimeRepositoryMock.findAll(ArgumentMatchers.any()))
+                .thenReturn(Flux.just(AnimeCreator.createValidAnime()));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.count())
+                .thenReturn(Mono.just(1L));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Mono.just(AnimeCreator.createValidAnime()));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.findAllById(ArgumentMatchers.anyCollection()))
+                .thenReturn(Flux.just(AnimeCreator.createValidAnime()));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.findSlice(ArgumentMatchers.any()))
+                .thenReturn(Flux.just(AnimeCreator.createValidAnime(), AnimeCreator.createValidUpdatedAnime()));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.findAllByOrderByIdAsc(ArgumentMatchers.anyInt()))
+                .thenReturn(Flux.just(AnimeCreator.createValidAnime(), AnimeCreator.createValidUpdatedAnime()));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.nextId())
+                .thenReturn(Mono.just(1L));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.insertAll(ArgumentMatchers.anyMap()))
+                .thenReturn(Mono.just(1));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.updateName(ArgumentMatchers.anyLong(),
+                ArgumentMatchers.anyString()))
+                .thenReturn(Mono.just(1));
+
+        BDDMockito.when(reactiveAnimeRepositoryMock.incrementRevision(ArgumentMatchers.anyLong()))
+                .thenReturn(Mono.just(1));
+
+        BDDMockito.when(reactiveTransactionalOperatorMock.transactional(ArgumentMatchers.<Mono<Object>>any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("listAll returns a page with the total count when successful")
+    void listAll_ReturnsPageOfAnimes_WhenSuccessful() {
+        StepVerifier.create(reactiveAnimeService.listAll(PageRequest.of(0, 5)))
+                .assertNext(page -> {
+                    Assertions.assertThat(page.getContent()).containsExactly(AnimeCreator.createValidAnime());
+
+                    Assertions.assertThat(page.getTotalElements()).isEqualTo(1);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException returns anime when successful")
+    void findByIdOrThrowBadRequestException_ReturnsAnime_WhenSuccessful() {
+        StepVerifier.create(reactiveAnimeService.findByIdOrThrowBadRequestException(1L))
+                .expectNext(AnimeCreator.createValidAnime())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("listAll with count mode none returns a slice without counting when successful")
+    void listAll_ReturnsSliceWithoutCount_WhenCountModeIsNone() {
+        StepVerifier.create(reactiveAnimeService.listAll(PageRequest.of(0, 1), CountMode.NONE))
+                .assertNext(slice -> {
+                    Assertions.assertThat(slice.getContent()).containsExactly(AnimeCreator.createValidAnime());
+
+                    Assertions.assertThat(slice.hasNext()).isTrue();
+                })
+                .verifyComplete();
+
+        BDDMockito.verify(reactiveAnimeRepositoryMock, Mockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("listAfter returns first keyset page with next cursor when successful")
+    void listAfter_ReturnsKeysetPageWithNextCursor_WhenSuccessful() {
+        StepVerifier.create(reactiveAnimeService.listAfter("", 1, "id"))
+                .assertNext(keysetPage -> {
+                    Assertions.assertThat(keysetPage.getContent()).containsExactly(AnimeCreator.createValidAnime());
+
+                    Assertions.assertThat(keysetPage.isHasNext()).isTrue();
+
+                    Assertions.assertThat(KeysetCursor.decode(keysetPage.getNextCursor()).getId()).isEqualTo(1L);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException serves repeated lookups from the anime cache")
+    void findByIdOrThrowBadRequestException_ReadsRepositoryOnce_WhenAnimeIsLookedUpTwice() {
+        StepVerifier.create(reactiveAnimeService.findByIdOrThrowBadRequestException(1L)
+                .then(reactiveAnimeService.findByIdOrThrowBadRequestException(1L)))
+                .expectNext(AnimeCreator.createValidAnime())
+                .verifyComplete();
+
+        BDDMockito.verify(reactiveAnimeRepositoryMock, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException emits BadRequestException when anime is not found")
+    void findByIdOrThrowBadRequestException_EmitsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(reactiveAnimeRepositoryMock.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveAnimeService.findByIdOrThrowBadRequestException(1L))
+                .expectError(BadRequestException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("findAllById returns animes in the requested order and the ids that were not found")
+    void findAllById_ReturnsAnimesAndMissingIds_WhenSomeAnimesAreNotFound() {
+        StepVerifier.create(reactiveAnimeService.findAllById(List.of(3L, 1L, 3L)))
+                .assertNext(response -> {
+                    Assertions.assertThat(response.getAnimes()).containsExactly(AnimeCreator.createValidAnime());
+
+                    Assertions.assertThat(response.getMissingIds()).containsExactly(3L);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findByPrefix emits BadRequestException without querying when prefix is blank")
+    void findByPrefix_EmitsBadRequestException_WhenPrefixIsBlank() {
+        StepVerifier.create(reactiveAnimeService.findByPrefix(" ", PageRequest.of(0, 5)))
+                .expectError(BadRequestException.class)
+                .verify();
+
+        BDDMockito.verify(reactiveAnimeRepositoryMock, Mockito.never())
+                .findByNameStartingWith(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("save inserts the anime and bumps the revision in one transaction when successful")
+    void save_InsertsAnimeInTransaction_WhenSuccessful() {
+        StepVerifier.create(reactiveAnimeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody()))
+                .assertNext(anime -> Assertions.assertThat(anime.getId()).isEqualTo(1L))
+                .verifyComplete();
+
+        BDDMockito.verify(reactiveAnimeRepositoryMock).insertAll(Map.of(1L, "Hajime no Ippo"));
+
+        BDDMockito.verify(reactiveAnimeRepositoryMock).incrementRevision(ArgumentMatchers.anyLong());
+
+        BDDMockito.verify(reactiveTransactionalOperatorMock).transactional(ArgumentMatchers.<Mono<Object>>any());
+
+        BDDMockito.verify(animeChangeHooksMock).saved(Map.of(1L, "Hajime no Ippo"));
+    }
+
+    @Test
+    @DisplayName("replace emits PreconditionFailedException when If-Match is * and anime is not found")
+    void replace_EmitsPreconditionFailedException_WhenIfMatchIsWildcardAndAnimeIsNotFound() {
+        BDDMockito.when(reactiveAnimeRepositoryMock.updateName(ArgumentMatchers.anyLong(),
+                ArgumentMatchers.anyString()))
+                .thenReturn(Mono.just(0));
+
+        StepVerifier.create(reactiveAnimeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), "*"))
+                .expectError(PreconditionFailedException.class)
+                .verify();
+
+        BDDMockito.verify(reactiveAnimeRepositoryMock, Mockito.never()).incrementRevision(ArgumentMatchers.anyLong());
+
+        BDDMockito.verify(animeChangeHooksMock, Mockito.never()).replaced(ArgumentMatchers.anyMap());
+    }
+}
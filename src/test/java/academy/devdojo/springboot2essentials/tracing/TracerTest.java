@@ -0,0 +1,73 @@
+package academy.devdojo.springboot2essentials.tracing;
+
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import academy.devdojo.springboot2essentials.config.DevDojoProperties;
+
+@DisplayName("Tests for Tracer")
+public class TracerTest {
+
+    @Test
+    @DisplayName("start records nested spans under the request span when the trace is sampled")
+    void start_RecordsNestedSpans_WhenTraceIsSampled() {
+        Tracer tracer = tracer(1.0, 16);
+
+        try (SpanScope request = tracer.beginTrace("http", "GET /animes/{id}")) {
+            try (SpanScope service = tracer.start("service", "AnimeService.findByIdOrThrowBadRequestException")) {
+                tracer.start("repository", "AnimeRepository.findById").close();
+            }
+        } finally {
+            tracer.endTrace();
+        }
+
+        List<Span> spans = tracer.recentSpans();
+        Assertions.assertThat(spans).extracting(Span::getLayer).containsExactly("repository", "service", "http");
+        Assertions.assertThat(spans).extracting(Span::getTraceId).containsOnly(spans.get(2).getTraceId());
+        Assertions.assertThat(spans.get(0).getParentSpanId()).isEqualTo(spans.get(1).getSpanId());
+        Assertions.assertThat(spans.get(1).getParentSpanId()).isEqualTo(spans.get(2).getSpanId());
+        Assertions.assertThat(spans.get(2).getParentSpanId()).isZero();
+        Assertions.assertThat(tracer.isSampling()).isFalse();
+    }
+
+    @Test
+    @DisplayName("start records nothing when the trace is not sampled")
+    void start_RecordsNothing_WhenTraceIsNotSampled() {
+        Tracer tracer = tracer(0.0, 16);
+
+        try (SpanScope request = tracer.beginTrace("http", "GET /animes")) {
+            Assertions.assertThat(request.isSampled()).isFalse();
+            Assertions.assertThat(tracer.isSampling()).isFalse();
+            tracer.start("service", "AnimeService.listAll").close();
+        } finally {
+            tracer.endTrace();
+        }
+
+        Assertions.assertThat(tracer.recentSpans()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("recentSpans keeps only the latest spans when the buffer wraps around")
+    void recentSpans_KeepsLatestSpans_WhenBufferWrapsAround() {
+        Tracer tracer = tracer(1.0, 4);
+
+        for (int request = 0; request < 10; request++) {
+            tracer.beginTrace("http", "GET /animes/" + request).close();
+            tracer.endTrace();
+        }
+
+        Assertions.assertThat(tracer.recentSpans())
+                .extracting(Span::getName)
+                .containsExactly("GET /animes/6", "GET /animes/7", "GET /animes/8", "GET /animes/9");
+    }
+
+    private static Tracer tracer(double sampleRate, int bufferSize) {
+        DevDojoProperties devDojoProperties = new DevDojoProperties();
+        devDojoProperties.getTracing().setSampleRate(sampleRate);
+        devDojoProperties.getTracing().setBufferSize(bufferSize);
+        return new Tracer(devDojoProperties);
+    }
+}
@@ -1,6 +1,7 @@
 package academy.devdojo.springboot2essentials.util;
 
 import academy.devdojo.springboot2essentials.domain.Anime;
+import academy.devdojo.springboot2essentials.wrapper.AnimeSummary;
 
 public class AnimeCreator {
 
@@ -24,4 +25,11 @@ public class AnimeCreator {
                 .build();
     }
 
+    public static AnimeSummary createValidAnimeSummary() {
+        return AnimeSummary.builder()
+                .name("Hajime no Ippo")
+                .id(1L)
+                .build();
+    }
+
 }
@@ -0,0 +1,31 @@
+package academy.devdojo.springboot2essentials.util;
+
+import org.assertj.core.api.Assertions;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import academy.devdojo.springboot2essentials.handler.SqlStatementHeaderAdvice;
+
+// needs devdojo.sql-statements.headers=true in the application under test
+public class SqlStatementBudgetAssertions {
+
+    public static void assertWithinBudget(ResponseEntity<?> response) {
+        assertWithinBudget(response.getHeaders());
+    }
+
+    public static void assertWithinBudget(HttpHeaders headers) {
+        String statements = headers.getFirst(SqlStatementHeaderAdvice.SQL_STATEMENTS);
+        String budget = headers.getFirst(SqlStatementHeaderAdvice.SQL_STATEMENT_BUDGET);
+
+        Assertions.assertThat(statements)
+                .as("%s header, are the SQL statement headers enabled?", SqlStatementHeaderAdvice.SQL_STATEMENTS)
+                .isNotNull();
+        Assertions.assertThat(budget)
+                .as("%s header, does the endpoint declare a @SqlStatementBudget?",
+                        SqlStatementHeaderAdvice.SQL_STATEMENT_BUDGET)
+                .isNotNull();
+        Assertions.assertThat(Integer.parseInt(statements))
+                .as("SQL statements run by the request")
+                .isLessThanOrEqualTo(Integer.parseInt(budget));
+    }
+}